@@ -4,12 +4,15 @@ import EmployeeCard from './EmployeeCard';
 import EmployeeForm from './EmployeeForm';
 import './EmployeeList.css';
 
+const PAGE_SIZE = 100;
+
 function EmployeeList() {
   const [employees, setEmployees] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [showForm, setShowForm] = useState(false);
   const [user, setUser] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
 
   useEffect(() => {
     // Get user data from localStorage
@@ -29,7 +32,10 @@ function EmployeeList() {
       setLoading(true);
       setError(null);
       
-      const response = await axios.get('http://localhost:8080/employees');
+      // Keyset paging: start before the first id and follow nextCursor
+      const response = await axios.get('http://localhost:8080/employees', {
+        params: { after: 0, size: PAGE_SIZE }
+      });
       
       // Safely handle the response - ensure it's always an array
       let data = response.data;
@@ -43,6 +49,7 @@ function EmployeeList() {
         // If it's an object with an employees or results property, use that
         else if (Array.isArray(data.employees)) {
           setEmployees(data.employees);
+          setNextCursor(data.nextCursor ?? null);
         } 
         else if (Array.isArray(data.results)) {
           setEmployees(data.results);
@@ -70,6 +77,20 @@ function EmployeeList() {
     }
   };
 
+  const fetchMoreEmployees = async () => {
+    try {
+      const response = await axios.get('http://localhost:8080/employees', {
+        params: { after: nextCursor, size: PAGE_SIZE }
+      });
+      const page = response.data;
+      setEmployees(prevEmployees => [...prevEmployees, ...(page.employees || [])]);
+      setNextCursor(page.nextCursor ?? null);
+    } catch (err) {
+      setError('Failed to fetch more employees');
+      console.error('Error fetching more employees:', err);
+    }
+  };
+
   const handleDelete = async (id) => {
     if (window.confirm('Are you sure you want to delete this employee?')) {
       try {
@@ -177,6 +198,14 @@ function EmployeeList() {
           ))
         )}
       </div>
+
+      {nextCursor !== null && (
+        <div className="text-center mb-4">
+          <button className="btn btn-outline-primary" onClick={fetchMoreEmployees}>
+            Load more
+          </button>
+        </div>
+      )}
     </div>
   );
 }
@@ -0,0 +1,99 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import com.example.payroll.role.RoleRepository;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sample data and in-memory repository stand-ins, so benchmarks run offline
+ * without a database.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Role role(long id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+
+    public static Employee employee(long id, String name, String username, String password, Role role) {
+        Employee employee = new Employee(name, username, password, role);
+        employee.setId(id);
+        return employee;
+    }
+
+    public static EmployeeCredentials credentials(Employee employee) {
+        Role role = employee.getRole();
+        return new EmployeeCredentials(employee.getId(), employee.getUsername(), employee.getName(),
+            role != null ? role.getId() : null, role != null ? role.getName() : null, employee.getPassword(),
+            employee.getSecurityStamp());
+    }
+
+    public static List<Role> roles() {
+        return List.of(role(1, "developer"), role(2, "tester"), role(3, "admin"), role(4, "manager"));
+    }
+
+    public static List<Employee> employees(int count, String passwordHash) {
+        List<Role> roles = roles();
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            employees.add(employee(i, "Employee " + i, "user" + i, passwordHash, roles.get(i % roles.size())));
+        }
+        return employees;
+    }
+
+    /**
+     * Answers findByUsername, findCredentialsByUsername, findById, findAll and
+     * findByIdGreaterThanOrderByIdAsc from memory.
+     */
+    public static EmployeeRepository employeeRepository(List<Employee> employees) {
+        Map<String, Employee> byUsername = employees.stream()
+            .collect(Collectors.toMap(Employee::getUsername, Function.identity()));
+        Map<Long, Employee> byId = employees.stream()
+            .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        return (EmployeeRepository) Proxy.newProxyInstance(EmployeeRepository.class.getClassLoader(),
+            new Class<?>[] {EmployeeRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "findByUsername" -> Optional.ofNullable(byUsername.get((String) args[0]));
+                case "findCredentialsByUsername" -> Optional.ofNullable(byUsername.get((String) args[0]))
+                    .map(BenchmarkFixtures::credentials);
+                case "findById" -> Optional.ofNullable(byId.get((Long) args[0]));
+                case "findAll" -> employees;
+                case "findByIdGreaterThanOrderByIdAsc" -> employees.stream()
+                    .filter(e -> e.getId() > (Long) args[0])
+                    .limit(((Limit) args[1]).max())
+                    .toList();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryEmployeeRepository";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * Answers findAll, findById and findByName from memory.
+     */
+    public static RoleRepository roleRepository(List<Role> roles) {
+        return (RoleRepository) Proxy.newProxyInstance(RoleRepository.class.getClassLoader(),
+            new Class<?>[] {RoleRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "findAll" -> roles;
+                case "findById" -> roles.stream().filter(r -> r.getId().equals(args[0])).findFirst();
+                case "findByName" -> roles.stream().filter(r -> r.getName().equals(args[0])).findFirst();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "InMemoryRoleRepository";
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
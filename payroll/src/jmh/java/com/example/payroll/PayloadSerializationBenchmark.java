@@ -0,0 +1,82 @@
+package com.example.payroll;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies on the hot endpoints, using an
+ * ObjectMapper configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Employee employee;
+    private List<Employee> employeePage;
+    private CompactEmployeePage compactPage;
+    private LoginController.LoginResponse loginResponse;
+    private DashboardController.UserInfoResponse userInfo;
+    private DashboardController.CompleteProfileResponse completeProfile;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        employeePage = BenchmarkFixtures.employees(100, "$2a$10$abcdefghijklmnopqrstuv");
+        employee = employeePage.get(0);
+        compactPage = CompactEmployeePage.of(EmployeePage.offset(employeePage, 0, 100, 100, 1));
+        loginResponse = new LoginController.LoginResponse(true, "Login successful", employee);
+        userInfo = new DashboardController.UserInfoResponse(employee.getUsername(), employee.getName(),
+            employee.getRole().getName(), List.of("ROLE_" + employee.getRole().getName().toUpperCase()));
+        completeProfile = new DashboardController.CompleteProfileResponse(employee.getId(), employee.getUsername(),
+            employee.getName(), employee.getRole().getId(), employee.getRole().getName());
+    }
+
+    @Benchmark
+    public byte[] employee() throws Exception {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public byte[] employeeList100() throws Exception {
+        return objectMapper.writeValueAsBytes(employeePage);
+    }
+
+    @Benchmark
+    public byte[] compactEmployeeList100() throws Exception {
+        return objectMapper.writeValueAsBytes(compactPage);
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] dashboardUserInfo() throws Exception {
+        return objectMapper.writeValueAsBytes(userInfo);
+    }
+
+    @Benchmark
+    public byte[] dashboardCompleteProfile() throws Exception {
+        return objectMapper.writeValueAsBytes(completeProfile);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against CBOR for the {@link Employee} and {@link Role} payloads that
+ * batch clients exchange. Encoded sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEES = new TypeReference<>() { };
+    private static final TypeReference<List<Role>> ROLES = new TypeReference<>() { };
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<Employee> employees;
+    private List<Role> roles;
+    private byte[] encodedEmployees;
+    private byte[] encodedRoles;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        mapper = format.equals("cbor") ? builder.factory(new CBORFactory()).build() : builder.build();
+
+        employees = BenchmarkFixtures.employees(1000, "$2a$10$abcdefghijklmnopqrstuv");
+        roles = BenchmarkFixtures.roles();
+        encodedEmployees = mapper.writeValueAsBytes(employees);
+        encodedRoles = mapper.writeValueAsBytes(roles);
+        System.out.printf("%n%s: 1000 employees = %d bytes, %d roles = %d bytes%n", format,
+            encodedEmployees.length, roles.size(), encodedRoles.length);
+    }
+
+    @Benchmark
+    public byte[] writeEmployees() throws Exception {
+        return mapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> readEmployees() throws Exception {
+        return mapper.readValue(encodedEmployees, EMPLOYEES);
+    }
+
+    @Benchmark
+    public byte[] writeRoles() throws Exception {
+        return mapper.writeValueAsBytes(roles);
+    }
+
+    @Benchmark
+    public List<Role> readRoles() throws Exception {
+        return mapper.readValue(encodedRoles, ROLES);
+    }
+}
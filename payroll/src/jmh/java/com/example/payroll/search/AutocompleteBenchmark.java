@@ -0,0 +1,56 @@
+package com.example.payroll.search;
+
+import com.example.payroll.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystroke lookups against {@link EmployeeAutocompleteIndex} at directory sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    @Param({"1000", "100000"})
+    public int employees;
+
+    private EmployeeAutocompleteIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new EmployeeAutocompleteIndex(
+            BenchmarkFixtures.employeeRepository(BenchmarkFixtures.employees(employees, "{noop}password")));
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<AutocompleteEntry> shortPrefix() {
+        return index.complete("e", null, 10);
+    }
+
+    @Benchmark
+    public List<AutocompleteEntry> longPrefix() {
+        return index.complete("user12", null, 10);
+    }
+
+    @Benchmark
+    public List<AutocompleteEntry> prefixWithRole() {
+        return index.complete("user", 2L, 10);
+    }
+}
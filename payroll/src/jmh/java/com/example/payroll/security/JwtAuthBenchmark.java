@@ -0,0 +1,104 @@
+package com.example.payroll.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtTokenProvider} costs: token generation at login, and per-request
+ * token handling in {@link JwtAuthenticationFilter} (the old validate-then-extract
+ * path against the single-parse and cached paths, and the revocation check).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm";
+    private static final long EXPIRATION = 86400000L;
+    private static final long REFRESH_EXPIRATION = 1209600000L;
+
+    private JwtTokenProvider cachingProvider;
+    private JwtTokenProvider uncachedProvider;
+    private TokenRevocationList revocationList;
+    private String token;
+    private String otherToken;
+    private boolean flip;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        cachingProvider = new JwtTokenProvider(SECRET, EXPIRATION, REFRESH_EXPIRATION, 10000);
+        // A one-entry cache that is fed two tokens alternately never hits
+        uncachedProvider = new JwtTokenProvider(SECRET, EXPIRATION, REFRESH_EXPIRATION, 1);
+        token = cachingProvider.generateToken("bilbo");
+        Thread.sleep(1000);
+        otherToken = cachingProvider.generateToken("bilbo");
+
+        // A revocation list holding as many logged-out tokens as a busy day would leave behind
+        revocationList = new TokenRevocationList(EXPIRATION, REFRESH_EXPIRATION, 60000, 1_000_000, "");
+        for (int i = 0; i < 100_000; i++) {
+            ParsedToken revoked = cachingProvider.parseToken(cachingProvider.generateToken("user" + i)).orElseThrow();
+            revocationList.revoke(revoked.tokenId(), revoked.expiration());
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingProvider.generateToken("bilbo");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        flip = !flip;
+        return uncachedProvider.validateToken(flip ? token : otherToken);
+    }
+
+    /**
+     * What the filter used to do: build the key and parser twice and parse twice.
+     */
+    @Benchmark
+    public String legacyValidateThenExtract() {
+        SecretKey validateKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Jwts.parser().verifyWith(validateKey).build().parseSignedClaims(token);
+
+        SecretKey extractKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Claims claims = Jwts.parser().verifyWith(extractKey).build().parseSignedClaims(token).getPayload();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public ParsedToken singleParse() {
+        flip = !flip;
+        return uncachedProvider.parseToken(flip ? token : otherToken).orElseThrow();
+    }
+
+    @Benchmark
+    public ParsedToken cachedParse() {
+        return cachingProvider.parseToken(token).orElseThrow();
+    }
+
+    /**
+     * What {@link JwtAuthenticationFilter} adds per request for revocation.
+     */
+    @Benchmark
+    public boolean cachedParseAndRevocationCheck() {
+        ParsedToken parsed = cachingProvider.parseToken(token).orElseThrow();
+        return revocationList.isRevoked(parsed.tokenId());
+    }
+}
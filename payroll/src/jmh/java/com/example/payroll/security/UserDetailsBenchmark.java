@@ -0,0 +1,72 @@
+package com.example.payroll.security;
+
+import com.example.payroll.BenchmarkFixtures;
+import com.example.payroll.Employee;
+import com.example.payroll.role.RoleRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Principal construction on the request path, against in-memory repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    private Employee employee;
+    private EmployeeUserDetails userDetails;
+    private EmployeeUserDetailsService userDetailsService;
+
+    @Setup
+    public void setUp() {
+        List<Employee> employees = BenchmarkFixtures.employees(1000, "{noop}password");
+        employee = employees.get(0);
+
+        RoleRegistry roleRegistry = new RoleRegistry(BenchmarkFixtures.roleRepository(BenchmarkFixtures.roles()));
+        roleRegistry.refresh();
+        userDetailsService = new EmployeeUserDetailsService(BenchmarkFixtures.employeeRepository(employees), roleRegistry);
+        userDetails = (EmployeeUserDetails) userDetailsService.loadUserByUsername(employee.getUsername());
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userDetails.getAuthorities();
+    }
+
+    /**
+     * How getAuthorities() used to work: derive the authority on every call.
+     */
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthoritiesDerivedPerCall() {
+        if (employee.getRole() != null) {
+            String roleName = "ROLE_" + employee.getRole().getName().toUpperCase();
+            return Collections.singletonList(new SimpleGrantedAuthority(roleName));
+        }
+        return Collections.emptyList();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername(employee.getUsername());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.payroll.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count for one endpoint. Latencies are recorded in
+ * microseconds with three significant digits.
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, int status) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status >= 400) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        histogram.reset();
+        errors.reset();
+    }
+
+    static String header() {
+        return String.format("%-28s %9s %7s %10s %9s %9s %9s %9s %9s",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    String row(double seconds) {
+        long count = histogram.getTotalCount();
+        return String.format("%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+            name, count, errors.sum(), count / seconds,
+            millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+            millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    double throughput(double seconds) {
+        return histogram.getTotalCount() / seconds;
+    }
+
+    double p99Millis() {
+        return millis(histogram.getValueAtPercentile(99));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
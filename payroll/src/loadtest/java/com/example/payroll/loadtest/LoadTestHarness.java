@@ -0,0 +1,263 @@
+package com.example.payroll.loadtest;
+
+import com.example.payroll.EmployeeSummary;
+import com.example.payroll.PayrollApplication;
+import com.example.payroll.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Boots the application against an in-memory H2 database, seeds it with
+ * employees through the bulk import API and drives it with concurrent
+ * virtual-thread clients carrying real JWTs. Prints throughput and latency
+ * percentiles per endpoint.
+ *
+ * Options (name=value): employees, clients, duration and warmup (seconds),
+ * bcrypt (cost factor), threads (platform, virtual or both), claims (true to run
+ * in stateless-claims mode with tokens carrying the employee). With threads=both
+ * the application is booted once per mode and the results are compared. The
+ * number of SQL statements per request over the measured phase is reported too.
+ */
+public final class LoadTestHarness {
+
+    private static final String PASSWORD = "password123";
+    private static final String[] SEED_ROLES = {"developer", "tester", "manager"};
+    private static final int SEED_CHUNK = 5000;
+
+    enum Endpoint {
+        LOGIN("POST /auth/login", 5),
+        LIST("GET /employees", 25),
+        ONE("GET /employees/{id}", 30),
+        USER_INFO("GET /dashboard/user-info", 20),
+        PROFILE("GET /dashboard/complete-profile", 20);
+
+        final String label;
+        final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    record SeededUser(long id, String username, String token) {
+    }
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int employees = Integer.parseInt(options.getOrDefault("employees", "1000"));
+        int clients = Integer.parseInt(options.getOrDefault("clients", "64"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        int bcrypt = Integer.parseInt(options.getOrDefault("bcrypt", "10"));
+        String threads = options.getOrDefault("threads", "platform");
+        boolean claims = Boolean.parseBoolean(options.getOrDefault("claims", "false"));
+
+        List<Boolean> modes = switch (threads) {
+            case "platform" -> List.of(false);
+            case "virtual" -> List.of(true);
+            case "both" -> List.of(false, true);
+            default -> throw new IllegalArgumentException("threads must be platform, virtual or both");
+        };
+
+        Map<Boolean, Map<Endpoint, EndpointStats>> results = new LinkedHashMap<>();
+        for (boolean virtualThreads : modes) {
+            System.out.printf("%n=== %s threads ===%n", virtualThreads ? "virtual" : "platform");
+            results.put(virtualThreads, run(virtualThreads, claims, employees, clients, duration, warmup, bcrypt));
+        }
+
+        if (results.size() == 2) {
+            System.out.printf("%n=== virtual vs platform ===%n");
+            System.out.printf("%-32s %14s %14s %12s %12s%n", "endpoint", "platform req/s", "virtual req/s",
+                "platform p99", "virtual p99");
+            for (Endpoint endpoint : Endpoint.values()) {
+                EndpointStats platform = results.get(false).get(endpoint);
+                EndpointStats virtual = results.get(true).get(endpoint);
+                System.out.printf("%-32s %14.1f %14.1f %12.2f %12.2f%n", endpoint.label,
+                    platform.throughput(duration), virtual.throughput(duration),
+                    platform.p99Millis(), virtual.p99Millis());
+            }
+        }
+    }
+
+    private static Map<Endpoint, EndpointStats> run(boolean virtualThreads, boolean claims, int employees, int clients,
+                                                    int duration, int warmup, int bcrypt) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads, claims, bcrypt)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+            List<SeededUser> users = seed(context, http, baseUrl, employees, claims);
+            System.out.printf("Seeded %d employees; %d clients, %ds warmup, %ds measured, claims %s%n",
+                users.size(), clients, warmup, duration, claims ? "on" : "off");
+
+            Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                stats.put(endpoint, new EndpointStats(endpoint.label));
+            }
+
+            drive(http, baseUrl, users, stats, clients, warmup);
+            stats.values().forEach(EndpointStats::reset);
+            Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+                .getStatistics();
+            long statementsBefore = statistics.getPrepareStatementCount();
+            drive(http, baseUrl, users, stats, clients, duration);
+            long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+            System.out.println(EndpointStats.header());
+            long requests = 0;
+            for (EndpointStats endpointStats : stats.values()) {
+                System.out.println(endpointStats.row(duration));
+                requests += endpointStats.count();
+            }
+            System.out.printf("SQL statements: %d over %d requests (%.3f per request)%n",
+                statements, requests, requests > 0 ? (double) statements / requests : 0.0);
+            return stats;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads, boolean claims, int bcrypt) {
+        // Command-line arguments take precedence over application.properties
+        return SpringApplication.run(PayrollApplication.class,
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--spring.datasource.url=jdbc:h2:mem:loadtest-" + (virtualThreads ? "virtual" : "platform")
+                + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.show-sql=false",
+            "--security.bcrypt.strength=" + bcrypt,
+            "--security.jwt.stateless-claims=" + claims,
+            // Every client shares one address, so the per-IP login limit would throttle the run
+            "--security.login.max-attempts-per-ip=" + Integer.MAX_VALUE,
+            "--logging.level.root=WARN");
+    }
+
+    private static List<SeededUser> seed(ConfigurableApplicationContext context, HttpClient http, String baseUrl,
+                                         int employees, boolean claims) throws Exception {
+        JwtTokenProvider tokens = context.getBean(JwtTokenProvider.class);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        String adminToken = tokens.generateToken("admin");
+
+        for (int from = 0; from < employees; from += SEED_CHUNK) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_CHUNK, employees); i++) {
+                rows.add(Map.of("name", "Load User " + i, "username", "load" + i, "password", PASSWORD,
+                    "role", SEED_ROLES[i % SEED_ROLES.length]));
+            }
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/employees/bulk"))
+                    .header("Authorization", "Bearer " + adminToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(rows)))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+        }
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        return jdbc.query("select e.id, e.username, e.name, e.role_id, r.name as role_name, e.security_stamp"
+                + " from employee e left join role r on r.id = e.role_id where e.username like 'load%'",
+            (rs, n) -> {
+                EmployeeSummary employee = new EmployeeSummary(rs.getLong("id"), rs.getString("username"),
+                    rs.getString("name"), rs.getLong("role_id"), rs.getString("role_name"));
+                String token = claims
+                    ? tokens.generateToken(employee, rs.getInt("security_stamp"))
+                    : tokens.generateToken(employee.username());
+                return new SeededUser(employee.id(), employee.username(), token);
+            });
+    }
+
+    private static void drive(HttpClient http, String baseUrl, List<SeededUser> users,
+                              Map<Endpoint, EndpointStats> stats, int clients, int seconds) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        SeededUser user = users.get(random.nextInt(users.size()));
+                        Endpoint endpoint = pick(random.nextInt(100));
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request(baseUrl, endpoint, user), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                        } catch (Exception ex) {
+                            status = 599;
+                        }
+                        stats.get(endpoint).record(System.nanoTime() - start, status);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static Endpoint pick(int roll) {
+        int cumulative = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            cumulative += endpoint.weight;
+            if (roll < cumulative) {
+                return endpoint;
+            }
+        }
+        return Endpoint.ONE;
+    }
+
+    private static HttpRequest request(String baseUrl, Endpoint endpoint, SeededUser user) {
+        HttpRequest.Builder builder = switch (endpoint) {
+            case LOGIN -> HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"username\":\"" + user.username() + "\",\"password\":\"" + PASSWORD + "\"}"));
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "/employees?size=20"));
+            case ONE -> HttpRequest.newBuilder(URI.create(baseUrl + "/employees/" + user.id()));
+            case USER_INFO -> HttpRequest.newBuilder(URI.create(baseUrl + "/dashboard/user-info"));
+            case PROFILE -> HttpRequest.newBuilder(URI.create(baseUrl + "/dashboard/complete-profile"));
+        };
+        if (endpoint != Endpoint.LOGIN) {
+            builder.header("Authorization", "Bearer " + user.token());
+        }
+        return builder.build();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.replaceFirst("^-+", "");
+            int eq = option.indexOf('=');
+            if (eq > 0) {
+                options.put(option.substring(0, eq), option.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.payroll;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows listed in {@code errors} were skipped; every
+ * other row was inserted.
+ */
+public record BulkImportResult(int received, int imported, List<RowError> errors, long elapsedMillis,
+                               double rowsPerSecond) {
+
+    /**
+     * @param row zero-based position of the row in the request: the array index for
+     *            JSON and CBOR, the line number (header line = 0) for CSV
+     */
+    public record RowError(int row, String username, String message) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.payroll;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar form of an {@link EmployeePage}, served for
+ * {@code Accept: application/vnd.payroll.compact+json}.
+ *
+ * Each employee is one index across the {@code ids}, {@code names},
+ * {@code usernames} and {@code roleIds} arrays, and every role on the page is
+ * named once in {@code roles} instead of being nested in each row.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactEmployeePage(Map<Long, String> roles, List<Long> ids, List<String> names, List<String> usernames,
+                                  List<Long> roleIds, Integer page, int size, Long totalElements, Integer totalPages,
+                                  Long nextCursor) {
+
+    public static final String MEDIA_TYPE = "application/vnd.payroll.compact+json";
+
+    static CompactEmployeePage of(EmployeePage page) {
+        int rows = page.employees().size();
+        Map<Long, String> roles = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(rows);
+        List<String> names = new ArrayList<>(rows);
+        List<String> usernames = new ArrayList<>(rows);
+        List<Long> roleIds = new ArrayList<>(rows);
+        for (Employee employee : page.employees()) {
+            ids.add(employee.getId());
+            names.add(employee.getName());
+            usernames.add(employee.getUsername());
+            roleIds.add(employee.getRoleId());
+            if (employee.getRole() != null) {
+                roles.putIfAbsent(employee.getRole().getId(), employee.getRole().getName());
+            }
+        }
+        return new CompactEmployeePage(roles, ids, names, usernames, roleIds, page.page(), page.size(),
+            page.totalElements(), page.totalPages(), page.nextCursor());
+    }
+}
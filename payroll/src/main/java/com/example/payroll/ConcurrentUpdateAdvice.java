@@ -0,0 +1,18 @@
+package com.example.payroll;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+class ConcurrentUpdateAdvice {
+
+  // Another request committed a newer version between our read and our write
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  String concurrentUpdateHandler(OptimisticLockingFailureException ex) {
+    return "The resource was modified concurrently; reload it and try again";
+  }
+}
@@ -21,12 +21,12 @@ public class DashboardController {
         
         if (authentication != null && authentication.isAuthenticated()) {
             EmployeeUserDetails userDetails = (EmployeeUserDetails) authentication.getPrincipal();
-            Employee employee = userDetails.getEmployee();
+            EmployeeSummary employee = userDetails.getEmployee();
             
             return ResponseEntity.ok(new UserInfoResponse(
-                employee.getUsername(),
-                employee.getName(),
-                employee.getRole().getName(),
+                employee.username(),
+                employee.name(),
+                employee.roleName(),
                 authentication.getAuthorities().stream()
                     .map(auth -> auth.getAuthority())
                     .toList()
@@ -45,14 +45,14 @@ public class DashboardController {
         
         if (authentication != null && authentication.isAuthenticated()) {
             EmployeeUserDetails userDetails = (EmployeeUserDetails) authentication.getPrincipal();
-            Employee employee = userDetails.getEmployee();
+            EmployeeSummary employee = userDetails.getEmployee();
             
             return ResponseEntity.ok(new CompleteProfileResponse(
-                employee.getId(),
-                employee.getUsername(),
-                employee.getName(),
-                employee.getRole() != null ? employee.getRole().getId() : null,
-                employee.getRole() != null ? employee.getRole().getName() : "UNKNOWN"
+                employee.id(),
+                employee.username(),
+                employee.name(),
+                employee.roleId(),
+                employee.roleId() != null ? employee.roleName() : "UNKNOWN"
             ));
         }
         
@@ -0,0 +1,92 @@
+package com.example.payroll;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Entity tags built from {@code @Version} columns (strong for single records,
+ * weak for compressible listings), and the {@code If-Match} checks used by
+ * PUT, PATCH and DELETE.
+ *
+ * JSON and CBOR bodies of the same version are different representations, so
+ * CBOR responses carry their own tag ({@link #cbor}); If-Match accepts either.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * A weak tag, for representations that may be content-coded (gzip) on the way
+     * out. Good for If-None-Match; never satisfies If-Match.
+     */
+    public static String weak(Object... parts) {
+        return "W/" + of(parts);
+    }
+
+    /**
+     * The tag of the CBOR representation that has the JSON tag {@code etag}.
+     */
+    public static String cbor(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-cbor\"";
+    }
+
+    public static String of(Employee employee) {
+        return employee.getRole() != null
+            ? of(employee.getId(), employee.getVersion(), employee.getRole().getId(), employee.getRole().getVersion())
+            : of(employee.getId(), employee.getVersion());
+    }
+
+    /**
+     * Throws {@link PreconditionFailedException} unless {@code ifMatch} is absent,
+     * {@code *}, or lists {@code currentETag} or its CBOR variant. Weak tags never match.
+     */
+    public static void checkIfMatch(String ifMatch, String currentETag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(currentETag) || candidate.equals(cbor(currentETag))) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException("Resource has changed; expected ETag " + currentETag);
+    }
+
+    /**
+     * The employee versions named by {@code ifMatch}, for checking inside an UPDATE
+     * instead of reading the row first. Null if the header is absent or {@code *}.
+     * Only the version part of a tag counts, not the role part or representation.
+     */
+    public static List<Long> employeeVersions(String ifMatch, Long employeeId) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return null;
+            }
+            if (candidate.length() < 2 || !candidate.startsWith("\"") || !candidate.endsWith("\"")) {
+                continue;
+            }
+            String[] parts = candidate.substring(1, candidate.length() - 1).split("-");
+            if (parts.length >= 2 && parts[0].equals(String.valueOf(employeeId))
+                    && !parts[1].isEmpty() && parts[1].chars().allMatch(Character::isDigit)) {
+                versions.add(Long.valueOf(parts[1]));
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match names no version of employee " + employeeId);
+        }
+        return versions;
+    }
+}
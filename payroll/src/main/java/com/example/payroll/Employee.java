@@ -8,18 +8,51 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.persistence.TableGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+// username is covered by its unique constraint; role_id leads the second index so role filters can seek on it
+@Table(indexes = {
+    @Index(name = "idx_employee_name", columnList = "name"),
+    @Index(name = "idx_employee_role_name", columnList = "role_id, name")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// UPDATEs set only the changed columns, so a PATCH of the name does not rewrite the password hash
+@DynamicUpdate
 public class Employee {
 
-    private @Id @GeneratedValue(strategy = GenerationType.IDENTITY) Long id;
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table generator: unlike IDENTITY it hands out ids without an insert, so inserts can be JDBC-batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "employee_id")
+    @TableGenerator(name = "employee_id", table = "id_generator", pkColumnName = "gen_name",
+        valueColumnName = "gen_value", pkColumnValue = "employee", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
     private String name;
     @Column(unique = true, nullable = false)
     private String username;
     @JsonIgnore
     private String password;
     
+    // Optimistic locking; exposed to clients only through the ETag header
+    @Version
+    @JsonIgnore
+    private long version;
+
+    // Bumped when the role or password changes; stateless-claims tokens carrying an older stamp are rejected
+    @JsonIgnore
+    private int securityStamp;
+
     // Simple ManyToOne mapping (assumes Role has a primary key named 'id')
     @ManyToOne 
     private Role role; 
@@ -78,6 +111,18 @@ public class Employee {
         this.password = password;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public int getSecurityStamp() {
+        return this.securityStamp;
+    }
+
+    public void rotateSecurityStamp() {
+        this.securityStamp++;
+    }
+
     public Long getRoleId() {
         return this.role != null ? this.role.getId() : null;
     }
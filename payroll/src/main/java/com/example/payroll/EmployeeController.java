@@ -1,40 +1,264 @@
 package com.example.payroll;
 
 import com.example.payroll.role.Role;
-import com.example.payroll.role.RoleRepository;
+import com.example.payroll.role.RoleRegistry;
 import com.example.payroll.role.RoleNotFoundException;
 
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import com.example.payroll.security.EmployeeUserDetails;
+import com.example.payroll.security.PasswordHashingService;
+import com.example.payroll.security.PrincipalCache;
+import com.example.payroll.security.SecurityStampTable;
+import com.example.payroll.search.AutocompleteEntry;
+import com.example.payroll.search.EmployeeAutocompleteIndex;
 
 @RestController
 class EmployeeController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_LOOKUP_IDS = 1000;
+    // Keeps each IN list short enough for the database to plan it as index lookups
+    private static final int LOOKUP_CHUNK = 200;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "username");
     
     private final EmployeeRepository employeeRepository;
-    private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingService passwordHashingService;
+    private final PrincipalCache principalCache;
+    private final EmployeeExportService employeeExportService;
+    private final EmployeeImportService employeeImportService;
+    private final EmployeePatchService employeePatchService;
+    private final EmployeeAutocompleteIndex autocompleteIndex;
+    private final SecurityStampTable securityStampTable;
 
-    EmployeeController(EmployeeRepository employeeRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    EmployeeController(EmployeeRepository employeeRepository, RoleRegistry roleRegistry, PasswordHashingService passwordHashingService,
+                       PrincipalCache principalCache, EmployeeExportService employeeExportService,
+                       EmployeeImportService employeeImportService, EmployeePatchService employeePatchService,
+                       EmployeeAutocompleteIndex autocompleteIndex, SecurityStampTable securityStampTable) {
         this.employeeRepository = employeeRepository;
-        this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.passwordHashingService = passwordHashingService;
+        this.principalCache = principalCache;
+        this.employeeExportService = employeeExportService;
+        this.employeeImportService = employeeImportService;
+        this.employeePatchService = employeePatchService;
+        this.autocompleteIndex = autocompleteIndex;
+        this.securityStampTable = securityStampTable;
     }
 
     @GetMapping("/employees")
     @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TESTER', 'MANAGER')")
-    List<Employee> all() {
-        return employeeRepository.findAll();
+    ResponseEntity<EmployeePage> all(@RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size,
+                                     @RequestParam(defaultValue = "id") String sort,
+                                     @RequestParam(required = false) Long after,
+                                     WebRequest webRequest) {
+
+        String etag = directoryETag("json");
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 has been written
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(listPage(page, size, sort, after));
+    }
+
+    // Same listing in the columnar layout; each representation has its own ETag
+    @GetMapping(value = "/employees", produces = CompactEmployeePage.MEDIA_TYPE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TESTER', 'MANAGER')")
+    ResponseEntity<CompactEmployeePage> allCompact(@RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "20") int size,
+                                                   @RequestParam(defaultValue = "id") String sort,
+                                                   @RequestParam(required = false) Long after,
+                                                   WebRequest webRequest) {
+
+        String etag = directoryETag("compact");
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 has been written
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+            .body(CompactEmployeePage.of(listPage(page, size, sort, after)));
+    }
+
+    @GetMapping(value = "/employees", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TESTER', 'MANAGER')")
+    ResponseEntity<EmployeePage> allCbor(@RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(required = false) Long after,
+                                         WebRequest webRequest) {
+
+        String etag = directoryETag("cbor");
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 has been written
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(listPage(page, size, sort, after));
+    }
+
+    /**
+     * Multi-get: {@code GET /employees?ids=3,1,2}. The same rules as
+     * {@code GET /employees/{id}} apply to each id; ids the caller may not read
+     * are reported as forbidden without being fetched.
+     */
+    @GetMapping(value = "/employees", params = "ids")
+    EmployeeLookup lookup(@RequestParam List<Long> ids) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EmployeeUserDetails currentUser = (EmployeeUserDetails) authentication.getPrincipal();
+        boolean isAdmin = authentication.getAuthorities().stream()
+            .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requested.size() > MAX_LOOKUP_IDS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "A lookup may name at most " + MAX_LOOKUP_IDS + " ids");
+        }
+
+        List<Long> allowed = new ArrayList<>();
+        List<Long> forbidden = new ArrayList<>();
+        for (Long id : requested) {
+            if (isAdmin || currentUser.getEmployee().id().equals(id)) {
+                allowed.add(id);
+            } else {
+                forbidden.add(id);
+            }
+        }
+
+        Map<Long, Employee> found = new HashMap<>();
+        for (int from = 0; from < allowed.size(); from += LOOKUP_CHUNK) {
+            List<Long> chunk = allowed.subList(from, Math.min(from + LOOKUP_CHUNK, allowed.size()));
+            employeeRepository.findByIdIn(chunk).forEach(employee -> found.put(employee.getId(), employee));
+        }
+
+        List<Employee> employees = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : allowed) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new EmployeeLookup(employees, missing, forbidden);
+    }
+
+    // Same as the GET form, for id lists that do not fit in a URL
+    @PostMapping("/employees/lookup")
+    EmployeeLookup lookup(@RequestBody EmployeeLookupRequest request) {
+        return lookup(request.ids() != null ? request.ids() : List.of());
+    }
+
+    /**
+     * Filters the directory by name and/or username ({@code q} matches either)
+     * and role, given as an id or a name. {@code match} is {@code prefix}
+     * (default, index-friendly) or {@code contains}. A role that does not exist
+     * matches no one, so the page is empty rather than a 404.
+     */
+    @GetMapping("/employees/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TESTER', 'MANAGER')")
+    EmployeePage search(@RequestParam(required = false) String q,
+                        @RequestParam(required = false) String name,
+                        @RequestParam(required = false) String username,
+                        @RequestParam(required = false) String role,
+                        @RequestParam(defaultValue = "prefix") String match,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(defaultValue = "name") String sort) {
+
+        boolean prefix = switch (match.toLowerCase()) {
+            case "prefix" -> true;
+            case "contains" -> false;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported match mode " + match);
+        };
+
+        Specification<Employee> filter = Specification.where(null);
+        if (StringUtils.hasText(q)) {
+            filter = filter.and(EmployeeSpecifications.nameMatches(q.trim(), prefix)
+                .or(EmployeeSpecifications.usernameMatches(q.trim(), prefix)));
+        }
+        if (StringUtils.hasText(name)) {
+            filter = filter.and(EmployeeSpecifications.nameMatches(name.trim(), prefix));
+        }
+        if (StringUtils.hasText(username)) {
+            filter = filter.and(EmployeeSpecifications.usernameMatches(username.trim(), prefix));
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // The sort is checked even when no query runs, so a bad one is always a 400
+        Sort order = parseSort(sort);
+        if (StringUtils.hasText(role)) {
+            Role filterRole = findRole(role.trim()).orElse(null);
+            if (filterRole == null) {
+                return EmployeePage.offset(List.of(), Math.max(page, 0), pageSize, 0, 0);
+            }
+            filter = filter.and(EmployeeSpecifications.hasRole(filterRole.getId()));
+        }
+        Page<Employee> result = employeeRepository.findAll(filter,
+            PageRequest.of(Math.max(page, 0), pageSize, order));
+        return EmployeePage.offset(result.getContent(), result.getNumber(), pageSize,
+            result.getTotalElements(), result.getTotalPages());
+    }
+
+    // Served from memory on every keystroke; role is an id or a name
+    @GetMapping("/employees/autocomplete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TESTER', 'MANAGER')")
+    List<AutocompleteEntry> autocomplete(@RequestParam String q,
+                                         @RequestParam(required = false) String role,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        Long roleId = StringUtils.hasText(role) ? resolveRole(role.trim()).getId() : null;
+        return autocompleteIndex.complete(q, roleId, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @GetMapping("/employees/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DEVELOPER', 'TESTER', 'MANAGER')")
+    void export(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        switch (format.toLowerCase()) {
+            case "ndjson" -> {
+                response.setContentType("application/x-ndjson");
+                response.setCharacterEncoding("UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.ndjson\"");
+                employeeExportService.writeNdjson(response.getOutputStream());
+            }
+            case "csv" -> {
+                response.setContentType("text/csv");
+                response.setCharacterEncoding("UTF-8");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees.csv\"");
+                employeeExportService.writeCsv(response.getOutputStream());
+            }
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format " + format);
+        }
     }
 
     @PostMapping("/employees")
@@ -43,31 +267,70 @@ class EmployeeController {
         
         Long roleId = newEmployee.getRole().getId();
         
-        Role role = roleRepository.findById(roleId)
+        Role role = roleRegistry.findById(roleId)
             .orElseThrow(() -> new RoleNotFoundException(roleId));
         
         newEmployee.setRole(role);
         
         // Hash password before saving
         if (newEmployee.getPassword() != null && !newEmployee.getPassword().isEmpty()) {
-            newEmployee.setPassword(passwordEncoder.encode(newEmployee.getPassword()));
+            newEmployee.setPassword(passwordHashingService.encode(newEmployee.getPassword()));
         }
         
-        return employeeRepository.save(newEmployee);
+        Employee saved = employeeRepository.save(newEmployee);
+        securityStampTable.update(saved);
+        autocompleteIndex.put(saved);
+        return saved;
+    }
+    
+    @PostMapping(value = "/employees/bulk",
+        consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    BulkImportResult bulkImport(@RequestBody List<EmployeeImportRow> rows) {
+        checkImportSize(rows);
+        return employeeImportService.importEmployees(rows);
+    }
+
+    // Errors name the CSV line of the offending row
+    @PostMapping(value = "/employees/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    BulkImportResult bulkImportCsv(@RequestBody String csv) {
+        EmployeeImportService.CsvRows parsed = EmployeeImportService.parseCsv(csv);
+        checkImportSize(parsed.rows());
+        return employeeImportService.importEmployees(parsed.rows(), parsed.lines());
+    }
+
+    private void checkImportSize(List<EmployeeImportRow> rows) {
+        if (rows.size() > employeeImportService.maxRows()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "A bulk import may contain at most " + employeeImportService.maxRows() + " rows");
+        }
     }
     
     @GetMapping("/employees/{id}")
-    Employee one(@PathVariable Long id) {
+    ResponseEntity<Employee> one(@PathVariable Long id) {
+        Employee employee = readable(id);
+        // A matching If-None-Match is answered with 304 before the body is serialized
+        return ResponseEntity.ok().eTag(ETags.of(employee)).varyBy(HttpHeaders.ACCEPT).body(employee);
+    }
+
+    @GetMapping(value = "/employees/{id}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    ResponseEntity<Employee> oneCbor(@PathVariable Long id) {
+        Employee employee = readable(id);
+        return ResponseEntity.ok().eTag(ETags.cbor(ETags.of(employee))).varyBy(HttpHeaders.ACCEPT).body(employee);
+    }
+
+    private Employee readable(Long id) {
         // Get current logged-in user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         EmployeeUserDetails currentUser = (EmployeeUserDetails) authentication.getPrincipal();
-        Employee loggedInEmployee = currentUser.getEmployee();
+        EmployeeSummary loggedInEmployee = currentUser.getEmployee();
         
         // Check if user is ADMIN or owns this record
         boolean isAdmin = authentication.getAuthorities().stream()
             .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
         
-        if (!isAdmin && !loggedInEmployee.getId().equals(id)) {
+        if (!isAdmin && !loggedInEmployee.id().equals(id)) {
             throw new AccessDeniedException("You can only view your own employee record");
         }
         
@@ -76,24 +339,27 @@ class EmployeeController {
     }
     
     @PutMapping("/employees/{id}")
-    Employee replaceEmployee(@RequestBody Employee newEmployee, @PathVariable Long id) {
+    ResponseEntity<Employee> replaceEmployee(@RequestBody Employee newEmployee, @PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         
         // Get current logged-in user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         EmployeeUserDetails currentUser = (EmployeeUserDetails) authentication.getPrincipal();
-        Employee loggedInEmployee = currentUser.getEmployee();
+        EmployeeSummary loggedInEmployee = currentUser.getEmployee();
         
         // Check if user is ADMIN
         boolean isAdmin = authentication.getAuthorities().stream()
             .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
         
         // Authorization check: non-admin users can only edit their own record
-        if (!isAdmin && !loggedInEmployee.getId().equals(id)) {
+        if (!isAdmin && !loggedInEmployee.id().equals(id)) {
             throw new AccessDeniedException("You can only edit your own employee record");
         }
         
         return employeeRepository.findById(id)
             .map(employee -> {
+                ETags.checkIfMatch(ifMatch, ETags.of(employee));
+
                 // Update name (allowed for all authorized users)
                 employee.setName(newEmployee.getName());
                 
@@ -101,25 +367,141 @@ class EmployeeController {
                 // Non-admin users cannot change their own role
                 if (isAdmin && newEmployee.getRole() != null) {
                     Long roleId = newEmployee.getRole().getId();
-                    Role role = roleRepository.findById(roleId)
+                    Role role = roleRegistry.findById(roleId)
                         .orElseThrow(() -> new RoleNotFoundException(roleId));
+                    if (!roleId.equals(employee.getRoleId())) {
+                        employee.rotateSecurityStamp();
+                    }
                     employee.setRole(role);
                 }
                 // If not admin, keep the existing role (ignore role from request body)
                 
                 // Update password if provided (encode before saving)
                 if (newEmployee.getPassword() != null && !newEmployee.getPassword().isEmpty()) {
-                    employee.setPassword(passwordEncoder.encode(newEmployee.getPassword()));
+                    employee.setPassword(passwordHashingService.encode(newEmployee.getPassword()));
+                    employee.rotateSecurityStamp();
                 }
                 
-                return employeeRepository.save(employee);
+                Employee saved = employeeRepository.save(employee);
+                principalCache.invalidateEmployee(id);
+                securityStampTable.update(saved);
+                autocompleteIndex.put(saved);
+                return ResponseEntity.ok().eTag(ETags.of(saved)).body(saved);
             })
             .orElseThrow(() -> new EmployeeNotFoundException(id));
     }
 
+    /**
+     * Changes only the fields present in the body; fields that are absent or
+     * null are left alone. An If-Match header is checked against the employee
+     * version. Answers 204, or 200 with the updated employee when the client
+     * sends {@code Prefer: return=representation}.
+     */
+    @PatchMapping(value = "/employees/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<Employee> patchEmployee(@RequestBody EmployeePatch patch, @PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                           @RequestHeader(value = "Prefer", required = false) String prefer) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EmployeeUserDetails currentUser = (EmployeeUserDetails) authentication.getPrincipal();
+        boolean isAdmin = authentication.getAuthorities().stream()
+            .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+
+        // Same rules as PUT: non-admins edit only their own record and never their role
+        if (!isAdmin && !currentUser.getEmployee().id().equals(id)) {
+            throw new AccessDeniedException("You can only edit your own employee record");
+        }
+        if (!isAdmin && patch.roleId() != null) {
+            throw new AccessDeniedException("Only administrators can change roles");
+        }
+
+        if (patch.password() != null && patch.password().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password cannot be empty");
+        }
+
+        List<Long> expectedVersions = ETags.employeeVersions(ifMatch, id);
+        Employee employee;
+        if (!patch.isEmpty()) {
+            Role role = patch.roleId() == null ? null
+                : roleRegistry.findById(patch.roleId()).orElseThrow(() -> new RoleNotFoundException(patch.roleId()));
+            String passwordHash = patch.password() != null ? passwordHashingService.encode(patch.password()) : null;
+
+            employee = employeePatchService.apply(id, patch.name(), passwordHash, role, expectedVersions);
+            principalCache.invalidateEmployee(id);
+            securityStampTable.update(employee);
+            autocompleteIndex.put(employee);
+        } else {
+            employee = employeeRepository.findById(id).orElseThrow(() -> new EmployeeNotFoundException(id));
+            if (expectedVersions != null && !expectedVersions.contains(employee.getVersion())) {
+                throw new PreconditionFailedException("Employee " + id + " has changed since it was read");
+            }
+        }
+
+        if (prefer != null && prefer.contains("return=representation")) {
+            return ResponseEntity.ok().eTag(ETags.of(employee)).body(employee);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/employees/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    void deleteEmployee(@PathVariable Long id) {
+    void deleteEmployee(@PathVariable Long id,
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            Employee current = employeeRepository.findById(id).orElseThrow(() -> new EmployeeNotFoundException(id));
+            ETags.checkIfMatch(ifMatch, ETags.of(current));
+        }
         employeeRepository.deleteById(id);
+        principalCache.invalidateEmployee(id);
+        securityStampTable.remove(id);
+        autocompleteIndex.remove(id);
+    }
+
+    // Computed before the page is read, so a concurrent write can only make the tag stale, never ahead.
+    // Weak, because listings are gzipped and Tomcat never compresses a response with a strong ETag.
+    private String directoryETag(String representation) {
+        EmployeeDirectoryVersion version = employeeRepository.directoryVersion();
+        return ETags.weak("employees", representation, version.count(), version.maxId(), version.versionSum(),
+            roleRegistry.version());
+    }
+
+    private EmployeePage listPage(int page, int size, String sort, Long after) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Keyset mode: seek past the last id the client has seen, no OFFSET scan
+        if (after != null) {
+            List<Employee> employees = employeeRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize));
+            return EmployeePage.keyset(employees, pageSize);
+        }
+
+        Page<Employee> result = employeeRepository.findAll(PageRequest.of(Math.max(page, 0), pageSize, parseSort(sort)));
+        return EmployeePage.offset(result.getContent(), result.getNumber(), pageSize,
+            result.getTotalElements(), result.getTotalPages());
+    }
+
+    private Role resolveRole(String role) {
+        return findRole(role).orElseThrow(() -> new RoleNotFoundException("Role not found: " + role));
+    }
+
+    // A role given as an id or a name; ids too long for a long cannot exist
+    private Optional<Role> findRole(String role) {
+        if (role.chars().allMatch(Character::isDigit)) {
+            return role.length() < 19 ? roleRegistry.findById(Long.valueOf(role)) : Optional.empty();
+        }
+        return roleRegistry.findByName(role);
+    }
+
+    // Accepts "property" or "property,asc|desc" for a whitelisted set of columns
+    private static Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort employees by " + property);
+        }
+        Sort.Direction direction = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc")
+            ? Sort.Direction.DESC
+            : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        // Tie-break on id so pages are stable when the sort column has duplicates
+        return property.equals("id") ? order : order.and(Sort.by("id"));
     }
 }
\ No newline at end of file
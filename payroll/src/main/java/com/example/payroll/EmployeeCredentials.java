@@ -0,0 +1,14 @@
+package com.example.payroll;
+
+/**
+ * An {@link EmployeeSummary} together with the stored password hash and security
+ * stamp, which is all that authentication and token refresh need.
+ */
+public record EmployeeCredentials(EmployeeSummary summary, String password, int securityStamp) {
+
+    // Constructor expression target for EmployeeRepository.findCredentialsByUsername
+    public EmployeeCredentials(Long id, String username, String name, Long roleId, String roleName, String password,
+                               int securityStamp) {
+        this(new EmployeeSummary(id, username, name, roleId, roleName), password, securityStamp);
+    }
+}
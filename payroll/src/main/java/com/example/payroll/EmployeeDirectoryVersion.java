@@ -0,0 +1,8 @@
+package com.example.payroll;
+
+/**
+ * Aggregate over the employee table that changes whenever any row is
+ * inserted, updated or deleted; the basis of the {@code /employees} ETag.
+ */
+public record EmployeeDirectoryVersion(Long count, Long maxId, Long versionSum) {
+}
@@ -0,0 +1,112 @@
+package com.example.payroll;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full employee directory to a stream row by row, so memory use does
+ * not depend on the size of the table.
+ */
+@Service
+class EmployeeExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter employeeWriter;
+
+    EmployeeExportService(EmployeeRepository employeeRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.employeeWriter = objectMapper.writerFor(Employee.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * One JSON object per line (NDJSON).
+     */
+    @Transactional(readOnly = true)
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = employeeWriter.getFactory().createGenerator(out);
+             Stream<Employee> employees = employeeRepository.streamAll()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            int rows = 0;
+            Iterator<Employee> it = employees.iterator();
+            while (it.hasNext()) {
+                Employee employee = it.next();
+                employeeWriter.writeValue(generator, employee);
+                generator.writeRaw('\n');
+                // Keep the persistence context from growing with the export
+                entityManager.detach(employee);
+                if (++rows % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+
+    /**
+     * CSV with a header row: id,name,username,roleId,roleName. Text cells that a
+     * spreadsheet would read as a formula are prefixed with a single quote.
+     */
+    @Transactional(readOnly = true)
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            writer.write("id,name,username,roleId,roleName\n");
+
+            int rows = 0;
+            Iterator<Employee> it = employees.iterator();
+            while (it.hasNext()) {
+                Employee employee = it.next();
+                writer.write(String.valueOf(employee.getId()));
+                writer.write(',');
+                writer.write(csv(employee.getName()));
+                writer.write(',');
+                writer.write(csv(employee.getUsername()));
+                writer.write(',');
+                writer.write(employee.getRole() != null ? String.valueOf(employee.getRole().getId()) : "");
+                writer.write(',');
+                writer.write(employee.getRole() != null ? csv(employee.getRole().getName()) : "");
+                writer.write('\n');
+                entityManager.detach(employee);
+                if (++rows % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        // A leading =, +, - or @ makes spreadsheets evaluate the cell as a formula; the quote keeps it text
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.payroll;
+
+/**
+ * One employee in a bulk import. The role may be given by id or by name.
+ */
+public record EmployeeImportRow(String name, String username, String password, Long roleId, String role) {
+}
@@ -0,0 +1,276 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import com.example.payroll.role.RoleRegistry;
+import com.example.payroll.search.EmployeeAutocompleteIndex;
+import com.example.payroll.security.PasswordHashingService;
+import com.example.payroll.security.SecurityStampTable;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inserts many employees at once. Rows are validated up front, roles are
+ * resolved from the {@link RoleRegistry} and rows are written in chunks, each chunk in its
+ * own transaction so Hibernate can send the inserts as JDBC batches.
+ */
+@Service
+class EmployeeImportService {
+
+    // Keeps IN lists well below driver and database limits
+    private static final int USERNAME_LOOKUP_CHUNK = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final EmployeeAutocompleteIndex autocompleteIndex;
+    private final SecurityStampTable securityStampTable;
+    private final int batchSize;
+    private final int maxRows;
+
+    EmployeeImportService(EmployeeRepository employeeRepository, RoleRegistry roleRegistry,
+                          PasswordHashingService passwordHashingService, PlatformTransactionManager transactionManager,
+                          EntityManager entityManager, EmployeeAutocompleteIndex autocompleteIndex,
+                          SecurityStampTable securityStampTable,
+                          @Value("${employee.import.batch-size:500}") int batchSize,
+                          @Value("${employee.import.max-rows:10000}") int maxRows) {
+        this.employeeRepository = employeeRepository;
+        this.roleRegistry = roleRegistry;
+        this.passwordHashingService = passwordHashingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.autocompleteIndex = autocompleteIndex;
+        this.securityStampTable = securityStampTable;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    int maxRows() {
+        return maxRows;
+    }
+
+    BulkImportResult importEmployees(List<EmployeeImportRow> rows) {
+        return importEmployees(rows, null);
+    }
+
+    /**
+     * Imports {@code rows}, reporting errors under {@code rowNumbers} (one per row)
+     * instead of list positions when given.
+     */
+    BulkImportResult importEmployees(List<EmployeeImportRow> rows, List<Integer> rowNumbers) {
+        long start = System.nanoTime();
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+
+        Set<String> takenUsernames = findExistingUsernames(rows);
+
+        List<Integer> acceptedRows = new ArrayList<>();
+        List<Employee> accepted = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            EmployeeImportRow row = rows.get(i);
+            String error = validate(row, takenUsernames);
+            Role role = error == null ? resolveRole(row) : null;
+            if (error == null && role == null) {
+                error = "Role not found";
+            }
+            if (error != null) {
+                errors.add(new BulkImportResult.RowError(rowNumbers != null ? rowNumbers.get(i) : i,
+                    row.username(), error));
+                continue;
+            }
+            takenUsernames.add(row.username());
+            acceptedRows.add(rowNumbers != null ? rowNumbers.get(i) : i);
+            accepted.add(new Employee(row.name(), row.username(), row.password(), role));
+        }
+
+        // BCrypt dominates the cost of an import, so hash on the shared hashing pool. This runs
+        // before any insert, so a 429 from a busy pool leaves nothing imported and is safe to retry
+        List<String> hashes = passwordHashingService.encodeAll(accepted.stream().map(Employee::getPassword).toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).setPassword(hashes.get(i));
+        }
+
+        int imported = 0;
+        for (int from = 0; from < accepted.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, accepted.size());
+            imported += saveChunk(accepted.subList(from, to), acceptedRows.subList(from, to), errors);
+        }
+
+        errors.sort((a, b) -> Integer.compare(a.row(), b.row()));
+        long elapsedNanos = System.nanoTime() - start;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        return new BulkImportResult(rows.size(), imported, errors, elapsedNanos / 1_000_000,
+            seconds > 0 ? imported / seconds : imported);
+    }
+
+    /**
+     * Saves a chunk in one transaction. If the chunk fails, its rows are retried
+     * one by one so only the offending rows are reported.
+     */
+    private int saveChunk(List<Employee> chunk, List<Integer> rowNumbers, List<BulkImportResult.RowError> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Freshly imported rows are not hot; keep them out of the second-level cache
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                employeeRepository.saveAll(chunk);
+            });
+            // The request-scoped persistence context would otherwise hold every imported row
+            entityManager.clear();
+            for (Employee employee : chunk) {
+                securityStampTable.update(employee);
+                autocompleteIndex.put(employee);
+            }
+            return chunk.size();
+        } catch (RuntimeException chunkFailure) {
+            int saved = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                Employee employee = chunk.get(i);
+                // Ids handed out to the rolled back chunk are discarded
+                employee.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> employeeRepository.save(employee));
+                    entityManager.clear();
+                    securityStampTable.update(employee);
+                    autocompleteIndex.put(employee);
+                    saved++;
+                } catch (RuntimeException rowFailure) {
+                    errors.add(new BulkImportResult.RowError(rowNumbers.get(i), employee.getUsername(),
+                        "Could not save employee: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                }
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Rows parsed from CSV, with the zero-based line of the input each came from.
+     */
+    record CsvRows(List<EmployeeImportRow> rows, List<Integer> lines) {
+    }
+
+    /**
+     * Parses CSV with a header row naming the columns name, username, password and
+     * role (a role id or name). Column order is free and unknown columns are ignored.
+     * Blank lines are skipped but still counted, so row numbers are CSV line numbers.
+     */
+    static CsvRows parseCsv(String csv) {
+        List<String> lines = csv.lines().toList();
+        int headerLine = 0;
+        while (headerLine < lines.size() && lines.get(headerLine).isBlank()) {
+            headerLine++;
+        }
+        if (headerLine == lines.size()) {
+            return new CsvRows(List.of(), List.of());
+        }
+
+        List<String> header = splitCsvLine(lines.get(headerLine));
+        int name = header.indexOf("name");
+        int username = header.indexOf("username");
+        int password = header.indexOf("password");
+        int role = header.indexOf("role");
+
+        List<EmployeeImportRow> rows = new ArrayList<>();
+        List<Integer> rowLines = new ArrayList<>();
+        for (int i = headerLine + 1; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(lines.get(i));
+            String roleValue = field(fields, role);
+            // An id too long for a long cannot exist; it is left as a name, which no role has
+            boolean roleIsId = roleValue != null && roleValue.length() < 19
+                && roleValue.chars().allMatch(Character::isDigit);
+            rows.add(new EmployeeImportRow(field(fields, name), field(fields, username), field(fields, password),
+                roleIsId ? Long.valueOf(roleValue) : null, roleIsId ? null : roleValue));
+            rowLines.add(i);
+        }
+        return new CsvRows(rows, rowLines);
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Splits one CSV record, honouring double-quoted fields and "" escapes
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private Set<String> findExistingUsernames(List<EmployeeImportRow> rows) {
+        List<String> usernames = rows.stream()
+            .map(EmployeeImportRow::username)
+            .filter(u -> u != null && !u.isBlank())
+            .distinct()
+            .toList();
+
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < usernames.size(); from += USERNAME_LOOKUP_CHUNK) {
+            int to = Math.min(from + USERNAME_LOOKUP_CHUNK, usernames.size());
+            existing.addAll(employeeRepository.findExistingUsernames(usernames.subList(from, to)));
+        }
+        return existing;
+    }
+
+    private static String validate(EmployeeImportRow row, Set<String> takenUsernames) {
+        if (row.username() == null || row.username().trim().isEmpty()) {
+            return "Username cannot be empty";
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "Password cannot be empty";
+        }
+        if (row.name() == null || row.name().trim().isEmpty()) {
+            return "Name cannot be empty";
+        }
+        if (takenUsernames.contains(row.username())) {
+            return "Username already exists";
+        }
+        return null;
+    }
+
+    // Served from the in-memory role registry, so no database trip per row
+    private Role resolveRole(EmployeeImportRow row) {
+        if (row.roleId() != null) {
+            return roleRegistry.findById(row.roleId()).orElse(null);
+        }
+        return roleRegistry.findByName(row.role()).orElse(null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.payroll;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the employees found, in the order their ids were
+ * requested, plus the ids that do not exist and those the caller may not read.
+ */
+public record EmployeeLookup(List<Employee> employees, List<Long> missing, List<Long> forbidden) {
+}
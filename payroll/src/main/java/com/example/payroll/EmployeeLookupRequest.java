@@ -0,0 +1,9 @@
+package com.example.payroll;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /employees/lookup}, for id lists too long for a query string.
+ */
+public record EmployeeLookupRequest(List<Long> ids) {
+}
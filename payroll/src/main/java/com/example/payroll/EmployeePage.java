@@ -0,0 +1,25 @@
+package com.example.payroll;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * One page of the employee directory.
+ *
+ * Offset pages carry {@code page}, {@code totalElements} and {@code totalPages};
+ * keyset pages carry {@code nextCursor}, the id to pass as {@code after} to fetch
+ * the following page (null once the last page has been reached).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeePage(List<Employee> employees, Integer page, int size, Long totalElements,
+                           Integer totalPages, Long nextCursor) {
+
+    static EmployeePage offset(List<Employee> employees, int page, int size, long totalElements, int totalPages) {
+        return new EmployeePage(employees, page, size, totalElements, totalPages, null);
+    }
+
+    static EmployeePage keyset(List<Employee> employees, int size) {
+        Long nextCursor = employees.size() < size ? null : employees.get(employees.size() - 1).getId();
+        return new EmployeePage(employees, null, size, null, null, nextCursor);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.payroll;
+
+/**
+ * Body of {@code PATCH /employees/{id}}. Fields left out (null) are not changed.
+ */
+public record EmployeePatch(String name, String password, Long roleId) {
+
+    boolean isEmpty() {
+        return name == null && password == null && roleId == null;
+    }
+}
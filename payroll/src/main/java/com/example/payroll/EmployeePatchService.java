@@ -0,0 +1,63 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Applies a partial employee update as a versioned read and one UPDATE.
+ *
+ * The read is usually answered by the second-level cache. Employee is
+ * {@code @DynamicUpdate}, so the UPDATE sets only the changed columns, and
+ * Hibernate's version check in its WHERE clause catches a write that lands
+ * between the two. Unlike a bulk JPQL update, this refreshes just this
+ * employee's cache entry instead of dropping the whole Employee region.
+ */
+@Service
+class EmployeePatchService {
+
+    private final EntityManager entityManager;
+
+    EmployeePatchService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the updated employee. {@code expectedVersions} (null means any
+     * version) must contain the current version. A new password, or a role
+     * other than the current one, also rotates the security stamp.
+     *
+     * @throws EmployeeNotFoundException if there is no such employee
+     * @throws PreconditionFailedException if the version is not one of {@code expectedVersions}
+     */
+    @Transactional
+    public Employee apply(Long id, String name, String passwordHash, Role role, Collection<Long> expectedVersions) {
+        Employee employee = entityManager.find(Employee.class, id);
+        if (employee == null) {
+            throw new EmployeeNotFoundException(id);
+        }
+        if (expectedVersions != null && !expectedVersions.contains(employee.getVersion())) {
+            throw new PreconditionFailedException("Employee " + id + " has changed since it was read");
+        }
+
+        if (name != null) {
+            employee.setName(name);
+        }
+        if (passwordHash != null) {
+            employee.setPassword(passwordHash);
+        }
+        boolean roleChanged = role != null && !role.getId().equals(employee.getRoleId());
+        if (roleChanged) {
+            // An initialized Role (usually from the second-level cache), so the result can be serialized
+            employee.setRole(entityManager.find(Role.class, role.getId()));
+        }
+        if (passwordHash != null || roleChanged) {
+            employee.rotateSecurityStamp();
+        }
+        // Flushed on commit; a concurrent write then fails the version check (409)
+        return employee;
+    }
+}
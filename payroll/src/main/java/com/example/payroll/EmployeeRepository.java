@@ -1,9 +1,102 @@
 package com.example.payroll;
 
+import com.example.payroll.role.Role;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import com.example.payroll.security.SecurityStamp;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
     Optional<Employee> findByUsernameAndPassword(String username, String password);
+    @EntityGraph(attributePaths = "role")
     Optional<Employee> findByUsername(String username);
-}
\ No newline at end of file
+
+    // One join query into a DTO for the authentication path; nothing enters the persistence context.
+    // Not query-cached: it would keep password hashes in memory, and any employee write empties it anyway.
+    @Query("select new com.example.payroll.EmployeeCredentials(e.id, e.username, e.name, r.id, r.name, e.password,"
+        + " e.securityStamp)"
+        + " from Employee e left join e.role r where e.username = :username")
+    Optional<EmployeeCredentials> findCredentialsByUsername(String username);
+
+    // Listing and lookup methods fetch the role in the same statement instead of one select per role
+    @Override
+    @EntityGraph(attributePaths = "role")
+    Page<Employee> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "role")
+    List<Employee> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "role")
+    Page<Employee> findAll(Specification<Employee> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "role")
+    Optional<Employee> findById(Long id);
+
+    // Multi-get; callers keep the id list short enough for one IN clause
+    @EntityGraph(attributePaths = "role")
+    List<Employee> findByIdIn(Collection<Long> ids);
+
+    @Query("select new com.example.payroll.security.SecurityStamp(e.id, e.securityStamp) from Employee e")
+    List<SecurityStamp> findSecurityStamps();
+
+    // Cached until the next write to the employee table, so polling an unchanged directory is free
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.payroll.EmployeeDirectoryVersion(count(e), coalesce(max(e.id), 0L),"
+        + " coalesce(sum(e.version), 0L)) from Employee e")
+    EmployeeDirectoryVersion directoryVersion();
+
+    // Keyset (seek) pagination: WHERE id > :lastSeenId ORDER BY id LIMIT :limit
+    @EntityGraph(attributePaths = "role")
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long lastSeenId, Limit limit);
+
+    // Bulk role moves. The ids are selected FOR UPDATE first so the caller knows exactly which
+    // rows the following UPDATE changes; every moved row gets a new version and security stamp.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.role.id = :roleId")
+    List<Long> lockIdsByRoleId(Long roleId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids and (e.role is null or e.role.id <> :roleId)")
+    List<Long> lockIdsNotInRole(Collection<Long> ids, Long roleId);
+
+    @Modifying
+    @Query("update Employee e set e.role = :to, e.version = e.version + 1, e.securityStamp = e.securityStamp + 1"
+        + " where e.role.id = :fromRoleId")
+    int reassignRole(Long fromRoleId, Role to);
+
+    @Modifying
+    @Query("update Employee e set e.role = :to, e.version = e.version + 1, e.securityStamp = e.securityStamp + 1"
+        + " where e.id in :ids")
+    int assignRole(Collection<Long> ids, Role to);
+
+    @Query("select e.username from Employee e where e.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    // Cursor over the whole directory for exports; must be consumed inside a transaction.
+    // It bypasses the second-level cache so an export does not evict the hot entries.
+    @Query("select e from Employee e left join fetch e.role order by e.id")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Employee> streamAll();
+}
@@ -0,0 +1,36 @@
+package com.example.payroll;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for {@code GET /employees/search}.
+ *
+ * Comparisons rely on the column collation for case-insensitivity (MySQL's
+ * default is case-insensitive) rather than wrapping the column in lower(), so a
+ * prefix match can still use the name or username index.
+ */
+final class EmployeeSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private EmployeeSpecifications() {
+    }
+
+    static Specification<Employee> nameMatches(String text, boolean prefix) {
+        return (root, query, cb) -> cb.like(root.get("name"), pattern(text, prefix), ESCAPE);
+    }
+
+    static Specification<Employee> usernameMatches(String text, boolean prefix) {
+        return (root, query, cb) -> cb.like(root.get("username"), pattern(text, prefix), ESCAPE);
+    }
+
+    static Specification<Employee> hasRole(Long roleId) {
+        return (root, query, cb) -> cb.equal(root.get("role").get("id"), roleId);
+    }
+
+    // A leading wildcard forces a scan, so only "contains" searches get one
+    private static String pattern(String text, boolean prefix) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return prefix ? escaped + "%" : "%" + escaped + "%";
+    }
+}
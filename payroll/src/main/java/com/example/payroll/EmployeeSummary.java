@@ -0,0 +1,24 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+
+/**
+ * Read-only view of an employee and its role, loaded with a single join query
+ * instead of hydrating managed {@link Employee} and {@link Role} entities.
+ */
+public record EmployeeSummary(Long id, String username, String name, Long roleId, String roleName) {
+
+    /**
+     * A detached {@link Employee} for responses that still expose the entity shape.
+     */
+    public Employee toEmployee() {
+        Role role = null;
+        if (roleId != null) {
+            role = new Role(roleName);
+            role.setId(roleId);
+        }
+        Employee employee = new Employee(name, username, null, role);
+        employee.setId(id);
+        return employee;
+    }
+}
@@ -2,12 +2,14 @@ package com.example.payroll;
 
 import com.example.payroll.role.Role;               
 import com.example.payroll.role.RoleRepository;     
+import com.example.payroll.security.SecurityStampTable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @Configuration
 class LoadDatabase {
@@ -15,10 +17,13 @@ class LoadDatabase {
     private static final Logger log = LoggerFactory.getLogger(LoadDatabase.class);
 
     @Bean
-    CommandLineRunner initDatabase(EmployeeRepository employeeRepository, RoleRepository roleRepository, org.springframework.security.crypto.password.PasswordEncoder passwordEncoder) { 
+    CommandLineRunner initDatabase(EmployeeRepository employeeRepository, RoleRepository roleRepository, org.springframework.security.crypto.password.PasswordEncoder passwordEncoder,
+                                   JdbcTemplate jdbcTemplate, SecurityStampTable securityStampTable) { 
         
         return args -> {
             
+            seedEmployeeIdGenerator(jdbcTemplate);
+
             // Create roles only if they don't already exist
             Role developerRole = roleRepository.findByName("developer")
                 .orElseGet(() -> roleRepository.save(new Role("developer")));
@@ -38,18 +43,42 @@ class LoadDatabase {
             // Only create employees if they don't already exist (prevents duplicate key errors)
             if (employeeRepository.findByUsername("bilbo").isEmpty()) {
                 Employee bilbo = new Employee("Bilbo Baggins", "bilbo", passwordEncoder.encode("password123"), developerRole);
-                log.info("Preloading " + employeeRepository.save(bilbo));
+                Employee saved = employeeRepository.save(bilbo);
+                securityStampTable.update(saved);
+                log.info("Preloading " + saved);
             }
             
             if (employeeRepository.findByUsername("frodo").isEmpty()) {
                 Employee frodo = new Employee("Frodo Baggins", "frodo", passwordEncoder.encode("password123"), testerRole);
-                log.info("Preloading " + employeeRepository.save(frodo));
+                Employee saved = employeeRepository.save(frodo);
+                securityStampTable.update(saved);
+                log.info("Preloading " + saved);
             }
             
             if (employeeRepository.findByUsername("admin").isEmpty()) {
                 Employee admin = new Employee("Admin User", "admin", passwordEncoder.encode("admin123"), adminRole);
-                log.info("Preloading " + employeeRepository.save(admin));
+                Employee saved = employeeRepository.save(admin);
+                securityStampTable.update(saved);
+                log.info("Preloading " + saved);
             }
         };
     }
+
+    /**
+     * Employee ids used to come from an IDENTITY column. Move the table generator
+     * past the highest existing id so pooled ids never collide with old rows.
+     */
+    private static void seedEmployeeIdGenerator(JdbcTemplate jdbcTemplate) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from employee", Long.class);
+        long floor = maxId + Employee.ID_ALLOCATION_SIZE + 1;
+
+        Integer rows = jdbcTemplate.queryForObject(
+            "select count(*) from id_generator where gen_name = 'employee'", Integer.class);
+        if (rows == 0) {
+            jdbcTemplate.update("insert into id_generator (gen_name, gen_value) values ('employee', ?)", floor);
+        } else {
+            jdbcTemplate.update("update id_generator set gen_value = ? where gen_name = 'employee' and gen_value < ?",
+                floor, floor);
+        }
+    }
 }
\ No newline at end of file
@@ -1,16 +1,27 @@
 package com.example.payroll;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import com.example.payroll.security.EmployeeUserDetails;
+import com.example.payroll.security.EmployeeUserDetailsService;
+import com.example.payroll.security.HashingCapacityExceededException;
+import com.example.payroll.security.JwtTokenProvider;
+import com.example.payroll.security.ParsedToken;
+import com.example.payroll.security.LoginThrottle;
+import com.example.payroll.security.PasswordHashingService;
+import com.example.payroll.security.SecurityStampTable;
+import com.example.payroll.security.TokenPair;
+import com.example.payroll.security.TokenRevocationList;
+import com.example.payroll.search.EmployeeAutocompleteIndex;
 import com.example.payroll.role.Role;
-import com.example.payroll.role.RoleRepository;
+import com.example.payroll.role.RoleRegistry;
 import com.example.payroll.role.RoleNotFoundException;
 
 @RestController
@@ -19,17 +30,35 @@ public class LoginController {
 
     private final AuthenticationManager authenticationManager;
     private final EmployeeRepository employeeRepository;
-    private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
+    private final EmployeeAutocompleteIndex autocompleteIndex;
+    private final JwtTokenProvider tokenProvider;
+    private final SecurityStampTable securityStampTable;
+    private final TokenRevocationList revocationList;
+    private final EmployeeUserDetailsService userDetailsService;
 
     public LoginController(AuthenticationManager authenticationManager,
                            EmployeeRepository employeeRepository,
-                           RoleRepository roleRepository,
-                           PasswordEncoder passwordEncoder) {
+                           RoleRegistry roleRegistry,
+                           PasswordHashingService passwordHashingService,
+                           LoginThrottle loginThrottle,
+                           EmployeeAutocompleteIndex autocompleteIndex,
+                           JwtTokenProvider tokenProvider,
+                           SecurityStampTable securityStampTable,
+                           TokenRevocationList revocationList,
+                           EmployeeUserDetailsService userDetailsService) {
         this.authenticationManager = authenticationManager;
         this.employeeRepository = employeeRepository;
-        this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
+        this.autocompleteIndex = autocompleteIndex;
+        this.tokenProvider = tokenProvider;
+        this.securityStampTable = securityStampTable;
+        this.revocationList = revocationList;
+        this.userDetailsService = userDetailsService;
     }
 
     @PostMapping("/register")
@@ -55,24 +84,29 @@ public class LoginController {
 
             // Get role from repository
             String roleName = registerRequest.getRole() != null ? registerRequest.getRole() : "USER";
-            Role role = roleRepository.findByName(roleName)
+            Role role = roleRegistry.findByName(roleName)
                 .orElseThrow(() -> new RoleNotFoundException("Role not found: " + roleName));
 
             // Create new employee with encrypted password
             Employee newEmployee = new Employee();
             newEmployee.setName(registerRequest.getName());
             newEmployee.setUsername(registerRequest.getUsername());
-            newEmployee.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            newEmployee.setPassword(passwordHashingService.encode(registerRequest.getPassword()));
             newEmployee.setRole(role);
 
             // Save employee
             Employee savedEmployee = employeeRepository.save(newEmployee);
+            securityStampTable.update(savedEmployee);
+            autocompleteIndex.put(savedEmployee);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new RegisterResponse(true, "Registration successful", savedEmployee));
         } catch (RoleNotFoundException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new RegisterResponse(false, e.getMessage(), null));
+        } catch (HashingCapacityExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new RegisterResponse(false, e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new RegisterResponse(false, "Registration failed: " + e.getMessage(), null));
@@ -80,7 +114,13 @@ public class LoginController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Turn away brute-force and login storms before any BCrypt work is done
+        if (!loginThrottle.tryAcquire(loginRequest.getUsername(), request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new LoginResponse(false, "Too many login attempts, please try again later", null));
+        }
+
         try {
             // Authenticate using AuthenticationManager
             Authentication authentication = authenticationManager.authenticate(
@@ -89,21 +129,102 @@ public class LoginController {
                     loginRequest.getPassword()
                 )
             );
+            loginThrottle.recordSuccess(loginRequest.getUsername());
 
             // Set authentication in SecurityContextHolder
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             // Get authenticated user details
             EmployeeUserDetails userDetails = (EmployeeUserDetails) authentication.getPrincipal();
-            Employee employee = userDetails.getEmployee();
+            EmployeeSummary summary = userDetails.getEmployee();
 
-            return ResponseEntity.ok(new LoginResponse(true, "Login successful", employee));
+            TokenPair tokens = issueTokens(userDetails);
+            return ResponseEntity.ok(new LoginResponse(true, "Login successful", summary.toEmployee(),
+                tokens.accessToken(), tokens.refreshToken()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(new LoginResponse(false, "Invalid username or password", null));
         }
     }
 
+    /**
+     * Trades a refresh token for a new access/refresh pair. Each refresh token
+     * is accepted once: it is revoked as part of the exchange. A refresh token
+     * whose security stamp is no longer the employee's (the role or password
+     * changed since it was issued) is refused. Answers 429 when
+     * the user refreshes too often and 503 when the revocation list is full.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        ParsedToken token = refreshRequest.getRefreshToken() == null ? null
+            : tokenProvider.parseToken(refreshRequest.getRefreshToken()).orElse(null);
+        if (token == null || !token.refresh() || !hasCurrentStamp(token) || revocationList.isRevoked(token.tokenId())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new LoginResponse(false, "Invalid or expired refresh token", null));
+        }
+        // Every refresh leaves a revoked id behind; cap how fast one account can add them
+        if (!loginThrottle.tryRefresh(token.username())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new LoginResponse(false, "Too many token refreshes, please try again later", null));
+        }
+        if (!revocationList.revoke(token.tokenId(), token.expiration())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new LoginResponse(false, "Invalid or expired refresh token", null));
+        }
+
+        // Refreshes are rare next to requests, so re-reading the employee here keeps name, role and stamp current
+        EmployeeUserDetails userDetails;
+        try {
+            userDetails = (EmployeeUserDetails) userDetailsService.loadUserByUsername(token.username());
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new LoginResponse(false, "Invalid or expired refresh token", null));
+        }
+        // Tokens issued before refresh tokens carried a stamp have none and are refused too
+        if (token.securityStamp() == null || token.securityStamp() != userDetails.getSecurityStamp()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new LoginResponse(false, "Invalid or expired refresh token", null));
+        }
+
+        EmployeeSummary summary = userDetails.getEmployee();
+        TokenPair tokens = issueTokens(userDetails);
+        return ResponseEntity.ok(new LoginResponse(true, "Token refreshed", summary.toEmployee(),
+            tokens.accessToken(), tokens.refreshToken()));
+    }
+
+    /**
+     * Revokes the bearer access token and, if given, the refresh token, until they expire.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) RefreshRequest logoutRequest,
+                                    @RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            tokenProvider.parseToken(authorization.substring(7))
+                .ifPresent(token -> revocationList.revoke(token.tokenId(), token.expiration()));
+        }
+        if (logoutRequest != null && logoutRequest.getRefreshToken() != null) {
+            tokenProvider.parseToken(logoutRequest.getRefreshToken())
+                .ifPresent(token -> revocationList.revoke(token.tokenId(), token.expiration()));
+        }
+        SecurityContextHolder.clearContext();
+        return ResponseEntity.ok(new LoginResponse(true, "Logged out", null));
+    }
+
+    // A claims token issued before the employee's last role or password change is stale
+    private boolean hasCurrentStamp(ParsedToken token) {
+        return token.employee() == null || !securityStampTable.isEnabled()
+            || securityStampTable.isCurrent(token.employee().employee().id(), token.employee().securityStamp());
+    }
+
+    // In stateless-claims mode the tokens carry the employee, so requests need no lookup
+    private TokenPair issueTokens(EmployeeUserDetails userDetails) {
+        EmployeeSummary employee = userDetails.getEmployee();
+        Integer stamp = securityStampTable.isEnabled() ? securityStampTable.stampOf(employee.id()) : null;
+        return stamp != null
+            ? tokenProvider.generateTokenPair(employee, stamp)
+            : tokenProvider.generateTokenPair(employee.username(), userDetails.getSecurityStamp());
+    }
+
     @GetMapping("/current-user")
     public ResponseEntity<?> getCurrentUser() {
         try {
@@ -112,13 +233,13 @@ public class LoginController {
             
             if (authentication != null && authentication.isAuthenticated()) {
                 EmployeeUserDetails userDetails = (EmployeeUserDetails) authentication.getPrincipal();
-                Employee employee = userDetails.getEmployee();
+                EmployeeSummary employee = userDetails.getEmployee();
                 
                 CurrentUserResponse response = new CurrentUserResponse(
-                    employee.getId(),
-                    employee.getUsername(),
-                    employee.getName(),
-                    employee.getRole() != null ? employee.getRole().getName() : "UNKNOWN",
+                    employee.id(),
+                    employee.username(),
+                    employee.name(),
+                    employee.roleId() != null ? employee.roleName() : "UNKNOWN",
                     authentication.getAuthorities().stream()
                         .map(auth -> auth.getAuthority())
                         .toList()
@@ -168,6 +289,8 @@ public class LoginController {
         private boolean success;
         private String message;
         private Employee employee;
+        private String token;
+        private String refreshToken;
 
         public LoginResponse() {}
 
@@ -177,6 +300,13 @@ public class LoginController {
             this.employee = employee;
         }
 
+        public LoginResponse(boolean success, String message, Employee employee, String token,
+                             String refreshToken) {
+            this(success, message, employee);
+            this.token = token;
+            this.refreshToken = refreshToken;
+        }
+
         public boolean isSuccess() {
             return success;
         }
@@ -200,6 +330,40 @@ public class LoginController {
         public void setEmployee(Employee employee) {
             this.employee = employee;
         }
+
+        public String getToken() {
+            return token;
+        }
+
+        public void setToken(String token) {
+            this.token = token;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+    }
+
+    public static class RefreshRequest {
+        private String refreshToken;
+
+        public RefreshRequest() {}
+
+        public RefreshRequest(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+
+        public void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 
     public static class CurrentUserResponse {
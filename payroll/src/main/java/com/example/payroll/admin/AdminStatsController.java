@@ -0,0 +1,63 @@
+package com.example.payroll.admin;
+
+import com.example.payroll.db.DatabaseAdmission;
+import com.example.payroll.db.QueryStats;
+import com.example.payroll.search.EmployeeAutocompleteIndex;
+import com.example.payroll.security.JwtTokenProvider;
+import com.example.payroll.security.LoginThrottle;
+import com.example.payroll.security.PasswordHashingService;
+import com.example.payroll.security.PrincipalCache;
+import com.example.payroll.security.TokenRevocationList;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminStatsController {
+
+    private final PrincipalCache principalCache;
+    private final JwtTokenProvider tokenProvider;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
+    private final DatabaseAdmission databaseAdmission;
+    private final SessionFactory sessionFactory;
+    private final EmployeeAutocompleteIndex autocompleteIndex;
+    private final TokenRevocationList revocationList;
+
+    public AdminStatsController(PrincipalCache principalCache, JwtTokenProvider tokenProvider,
+                                PasswordHashingService passwordHashingService, LoginThrottle loginThrottle,
+                                DatabaseAdmission databaseAdmission, EntityManagerFactory entityManagerFactory,
+                                EmployeeAutocompleteIndex autocompleteIndex, TokenRevocationList revocationList) {
+        this.principalCache = principalCache;
+        this.tokenProvider = tokenProvider;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
+        this.databaseAdmission = databaseAdmission;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.autocompleteIndex = autocompleteIndex;
+        this.revocationList = revocationList;
+    }
+
+    // GET /admin/stats
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("principalCache", principalCache.stats());
+        stats.put("verifiedTokenCache", tokenProvider.verifiedTokenStats());
+        stats.put("passwordHashing", passwordHashingService.stats());
+        stats.put("loginThrottle", loginThrottle.stats());
+        stats.put("databaseAdmission", databaseAdmission.stats());
+        stats.put("hibernate", QueryStats.of(sessionFactory.getStatistics()));
+        stats.put("autocompleteIndex", autocompleteIndex.stats());
+        stats.put("tokenRevocation", revocationList.stats());
+        return stats;
+    }
+}
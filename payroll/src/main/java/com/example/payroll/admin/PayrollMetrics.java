@@ -0,0 +1,90 @@
+package com.example.payroll.admin;
+
+import com.example.payroll.cache.CacheStats;
+import com.example.payroll.db.DatabaseAdmission;
+import com.example.payroll.search.EmployeeAutocompleteIndex;
+import com.example.payroll.security.JwtTokenProvider;
+import com.example.payroll.security.LoginThrottle;
+import com.example.payroll.security.PasswordHashingService;
+import com.example.payroll.security.PrincipalCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Publishes the counters behind {@code /admin/stats} as Micrometer meters, so
+ * they show up in the Prometheus scrape next to the request timers.
+ */
+@Component
+public class PayrollMetrics implements MeterBinder {
+
+    private final PrincipalCache principalCache;
+    private final JwtTokenProvider tokenProvider;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
+    private final DatabaseAdmission databaseAdmission;
+    private final EmployeeAutocompleteIndex autocompleteIndex;
+
+    public PayrollMetrics(PrincipalCache principalCache, JwtTokenProvider tokenProvider,
+                          PasswordHashingService passwordHashingService, LoginThrottle loginThrottle,
+                          DatabaseAdmission databaseAdmission, EmployeeAutocompleteIndex autocompleteIndex) {
+        this.principalCache = principalCache;
+        this.tokenProvider = tokenProvider;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
+        this.databaseAdmission = databaseAdmission;
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "principal", principalCache, PrincipalCache::stats);
+        bindCache(registry, "verified_token", tokenProvider, JwtTokenProvider::verifiedTokenStats);
+
+        Gauge.builder("payroll.hashing.active", passwordHashingService, s -> s.stats().activeThreads())
+            .register(registry);
+        Gauge.builder("payroll.hashing.queue.depth", passwordHashingService, s -> s.stats().queueDepth())
+            .register(registry);
+        FunctionCounter.builder("payroll.hashing.completed", passwordHashingService, s -> s.stats().completed())
+            .register(registry);
+        FunctionCounter.builder("payroll.hashing.rejected", passwordHashingService, s -> s.stats().rejected())
+            .register(registry);
+
+        FunctionCounter.builder("payroll.login.throttle.accepted", loginThrottle, t -> t.stats().accepted())
+            .register(registry);
+        FunctionCounter.builder("payroll.login.throttle.rejected", loginThrottle, t -> t.stats().rejectedByUsername())
+            .tag("by", "username").register(registry);
+        FunctionCounter.builder("payroll.login.throttle.rejected", loginThrottle, t -> t.stats().rejectedByIp())
+            .tag("by", "ip").register(registry);
+        FunctionCounter.builder("payroll.login.throttle.rejected", loginThrottle, t -> t.stats().rejectedRefreshes())
+            .tag("by", "refresh").register(registry);
+
+        Gauge.builder("payroll.db.admission.available", databaseAdmission, a -> a.stats().available())
+            .register(registry);
+        Gauge.builder("payroll.db.admission.waiting", databaseAdmission, a -> a.stats().waiting())
+            .register(registry);
+        FunctionCounter.builder("payroll.db.admission.rejected", databaseAdmission, a -> a.stats().rejected())
+            .register(registry);
+
+        Gauge.builder("payroll.autocomplete.employees", autocompleteIndex, i -> i.stats().employees())
+            .register(registry);
+        Gauge.builder("payroll.autocomplete.estimated.bytes", autocompleteIndex, i -> i.stats().estimatedBytes())
+            .baseUnit("bytes").register(registry);
+    }
+
+    // Meters hold their state object weakly, so they are given the long-lived bean rather than a lambda over it
+    private static <T> void bindCache(MeterRegistry registry, String name, T owner, Function<T, CacheStats> stats) {
+        FunctionCounter.builder("payroll.cache.hits", owner, o -> stats.apply(o).hits())
+            .tag("cache", name).register(registry);
+        FunctionCounter.builder("payroll.cache.misses", owner, o -> stats.apply(o).misses())
+            .tag("cache", name).register(registry);
+        FunctionCounter.builder("payroll.cache.evictions", owner, o -> stats.apply(o).evictions())
+            .tag("cache", name).register(registry);
+        Gauge.builder("payroll.cache.size", owner, o -> stats.apply(o).size())
+            .tag("cache", name).register(registry);
+    }
+}
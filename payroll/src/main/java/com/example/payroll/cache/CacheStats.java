@@ -0,0 +1,12 @@
+package com.example.payroll.cache;
+
+/**
+ * Point-in-time counters for an {@link ExpiringCache}.
+ */
+public record CacheStats(long hits, long misses, long evictions, int size) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.payroll.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+
+/**
+ * Small bounded in-memory cache where every entry carries its own expiry time.
+ *
+ * Reads are lock-free and only note when an entry was last used. Writes take a
+ * lock, so the cache never holds more than {@code maxSize} entries. Expired
+ * entries are swept at most once per sweep interval. When the cache is full,
+ * one pass drops everything expired plus the least recently used live entries,
+ * freeing a tenth of the capacity at once so the pass runs once per that many
+ * inserts rather than on every one.
+ */
+public class ExpiringCache<K, V> {
+
+    private static final long DEFAULT_SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final int evictionBatch;
+    private final long sweepIntervalMillis;
+
+    // Guards writes so the size check and the insert are one step
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextSweep;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize) {
+        this(maxSize, DEFAULT_SWEEP_INTERVAL_MILLIS);
+    }
+
+    public ExpiringCache(int maxSize, long sweepIntervalMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.evictionBatch = Math.max(1, maxSize / 10);
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.nextSweep = System.currentTimeMillis() + sweepIntervalMillis;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.isExpired(now)) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        entry.touch(now);
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (now >= nextSweep) {
+                sweepExpired(now);
+            }
+            if (entries.size() >= maxSize && !entries.containsKey(key)) {
+                makeRoom(now);
+            }
+            entries.put(key, new Entry<>(value, expiresAtMillis, now));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry whose key and value match the predicate.
+     */
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void sweepExpired(long now) {
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+        nextSweep = now + sweepIntervalMillis;
+    }
+
+    // One pass: drop what has expired and remember the least recently used of the rest
+    private void makeRoom(long now) {
+        int target = maxSize - evictionBatch;
+        // Max-heap holding the evictionBatch least recently used entries seen so far. Access
+        // times are copied, since readers keep updating them while the heap is built
+        Comparator<Candidate<K, V>> byLastAccess = Comparator.comparingLong(Candidate::lastAccess);
+        PriorityQueue<Candidate<K, V>> oldest = new PriorityQueue<>(evictionBatch + 1, byLastAccess.reversed());
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (e.getValue().isExpired(now)) {
+                it.remove();
+                evictions.increment();
+                continue;
+            }
+            oldest.add(new Candidate<>(e.getKey(), e.getValue(), e.getValue().lastAccess));
+            if (oldest.size() > evictionBatch) {
+                oldest.poll();
+            }
+        }
+        nextSweep = now + sweepIntervalMillis;
+
+        List<Candidate<K, V>> candidates = new ArrayList<>(oldest);
+        candidates.sort(byLastAccess);
+        for (Candidate<K, V> candidate : candidates) {
+            if (entries.size() <= target) {
+                break;
+            }
+            if (entries.remove(candidate.key(), candidate.entry())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private record Candidate<K, V>(K key, Entry<V> entry, long lastAccess) {
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long expiresAtMillis;
+        private volatile long lastAccess;
+
+        Entry(V value, long expiresAtMillis, long now) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.lastAccess = now;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+
+        // Written at most once per millisecond, so hot entries do not bounce their cache line on every read
+        void touch(long now) {
+            if (lastAccess != now) {
+                lastAccess = now;
+            }
+        }
+    }
+}
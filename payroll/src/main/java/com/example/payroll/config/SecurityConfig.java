@@ -2,8 +2,10 @@ package com.example.payroll.config;
 
 import com.example.payroll.security.EmployeeUserDetailsService;
 import com.example.payroll.security.JwtAuthenticationFilter; // You need this filter
+import com.example.payroll.security.PrincipalCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -17,6 +19,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.Arrays;
 
 @Configuration
@@ -27,13 +31,19 @@ public class SecurityConfig {
     private final EmployeeUserDetailsService employeeUserDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final JwtAuthenticationFilter jwtAuthenticationFilter; // Added this
+    private final PrincipalCache principalCache;
+    private final Environment environment;
 
     public SecurityConfig(EmployeeUserDetailsService employeeUserDetailsService, 
                          PasswordEncoder passwordEncoder,
-                         JwtAuthenticationFilter jwtAuthenticationFilter) {
+                         JwtAuthenticationFilter jwtAuthenticationFilter,
+                         PrincipalCache principalCache,
+                         Environment environment) {
         this.employeeUserDetailsService = employeeUserDetailsService;
         this.passwordEncoder = passwordEncoder;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.principalCache = principalCache;
+        this.environment = environment;
     }
 
     @Bean
@@ -41,6 +51,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(employeeUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // Short-lived lookup cache; a password mismatch against a cached user triggers a fresh load
+        authProvider.setUserCache(principalCache);
         return authProvider;
     }
 
@@ -56,7 +68,17 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // Allows Postman/React POST requests
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // No more HTML Login redirects
             .authorizeHttpRequests(authz -> authz
+                // The JWT is not re-read when a 4xx/5xx is forwarded to /error; without this every error became a 401
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 .requestMatchers("/auth/login", "/auth/register").permitAll() // Open access for registration/login
+                // Refresh is called once the access token has expired; logout checks its tokens itself
+                .requestMatchers("/auth/refresh", "/auth/logout").permitAll()
+                // Health checks and the Prometheus scraper carry no JWT. The scrape is only served
+                // unauthenticated on the internal management port (management.server.port)
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers(request -> onManagementPort(request)
+                    && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/employees/**").authenticated() // Francis must be logged in to see this
                 .anyRequest().authenticated()
             )
@@ -74,6 +96,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Looked up per request: the port is only known once the management server has started
+    private boolean onManagementPort(HttpServletRequest request) {
+        Integer managementPort = environment.getProperty("local.management.port", Integer.class);
+        return managementPort != null && managementPort == request.getLocalPort();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,85 @@
+package com.example.payroll.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out connections only to threads admitted by {@link DatabaseAdmission};
+ * the admission is given back when the connection is closed.
+ */
+class AdmissionDataSource extends DelegatingDataSource {
+
+    private final DatabaseAdmission admission;
+
+    AdmissionDataSource(DataSource target, DatabaseAdmission admission) {
+        super(target);
+        this.admission = admission;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Runnable release = admit();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(), release);
+        } catch (SQLException | RuntimeException ex) {
+            release.run();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Runnable release = admit();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password), release);
+        } catch (SQLException | RuntimeException ex) {
+            release.run();
+            throw ex;
+        }
+    }
+
+    private Runnable admit() throws SQLException {
+        try {
+            return admission.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", ex);
+        }
+    }
+
+    private static Connection releasingOnClose(Connection connection, Runnable release) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(AdmissionDataSource.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                    try {
+                        connection.close();
+                    } finally {
+                        if (closed.compareAndSet(false, true)) {
+                            release.run();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+            });
+    }
+}
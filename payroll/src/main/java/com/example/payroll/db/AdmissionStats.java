@@ -0,0 +1,7 @@
+package com.example.payroll.db;
+
+/**
+ * Point-in-time view of {@link DatabaseAdmission}.
+ */
+public record AdmissionStats(boolean enabled, int permits, int available, int waiting, long admitted, long rejected) {
+}
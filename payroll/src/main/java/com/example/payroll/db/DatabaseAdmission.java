@@ -0,0 +1,67 @@
+package com.example.payroll.db;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds how many threads may hold a database connection at once.
+ *
+ * With virtual threads there is no Tomcat pool to cap concurrency, so thousands
+ * of requests could otherwise queue inside HikariCP at the same time. A permit
+ * is taken when a connection is checked out and returned when it is closed (see
+ * {@link AdmissionDataSource}), so it covers the whole time the connection is
+ * held: a transaction, an open stream or an {@code EntityManager} call alike.
+ * Callers wait for a permit up to {@code timeoutMillis} and then fail with
+ * {@link DatabaseBusyException} (HTTP 503). A thread that already holds a
+ * connection gets further ones without a second permit, so it cannot block on itself.
+ */
+public class DatabaseAdmission {
+
+    private final boolean enabled;
+    private final int permits;
+    private final long timeoutMillis;
+    private final Semaphore semaphore;
+    private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public DatabaseAdmission(boolean enabled, int permits, long timeoutMillis) {
+        this.enabled = enabled;
+        this.permits = permits;
+        this.timeoutMillis = timeoutMillis;
+        this.semaphore = new Semaphore(permits);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Admits the calling thread for one more connection. Returns the release
+     * action, which must be run exactly once when that connection is closed.
+     */
+    Runnable acquire() throws InterruptedException {
+        int[] count = held.get();
+        if (count[0] == 0) {
+            if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new DatabaseBusyException(timeoutMillis);
+            }
+            admitted.increment();
+        }
+        count[0]++;
+        // The permit goes back with the thread's last open connection, whichever order they are closed in
+        return () -> {
+            if (--count[0] == 0) {
+                semaphore.release();
+            }
+        };
+    }
+
+    public AdmissionStats stats() {
+        return new AdmissionStats(enabled, permits, semaphore.availablePermits(), semaphore.getQueueLength(),
+            admitted.sum(), rejected.sum());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.payroll.db;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts {@link DatabaseAdmission} in front of the application's DataSource, so
+ * every connection checkout, whatever code path asks for it, needs a permit.
+ *
+ * Admission is on by default when virtual threads are enabled
+ * ({@code spring.threads.virtual.enabled}) and can be forced either way with
+ * {@code payroll.db.admission.enabled}. Permits default to the HikariCP pool size.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DatabaseAdmissionConfig {
+
+    @Bean
+    static DatabaseAdmission databaseAdmission(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        return new DatabaseAdmission(
+            environment.getProperty("payroll.db.admission.enabled", Boolean.class, virtualThreads),
+            environment.getProperty("payroll.db.admission.permits", Integer.class, poolSize),
+            environment.getProperty("payroll.db.admission.timeout", Long.class, 2000L));
+    }
+
+    @Bean
+    static BeanPostProcessor dataSourceAdmissionPostProcessor(ObjectProvider<DatabaseAdmission> admission) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionDataSource)) {
+                    DatabaseAdmission databaseAdmission = admission.getObject();
+                    if (databaseAdmission.isEnabled()) {
+                        return new AdmissionDataSource(dataSource, databaseAdmission);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.payroll.db;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(long timeoutMillis) {
+        super("Database is busy, no connection slot became free within " + timeoutMillis + " ms");
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.payroll.db;
+
+import org.hibernate.stat.Statistics;
+
+/**
+ * Hibernate session-factory counters since startup. A rising entityFetchCount
+ * relative to queryExecutionCount means associations are being loaded one
+ * select at a time.
+ */
+public record QueryStats(boolean enabled, long queryExecutionCount, long prepareStatementCount,
+                         long entityLoadCount, long entityFetchCount, long collectionFetchCount,
+                         long queryExecutionMaxTimeMillis, String slowestQuery,
+                         long secondLevelCacheHitCount, long secondLevelCacheMissCount, long secondLevelCachePutCount,
+                         long queryCacheHitCount, long queryCacheMissCount, long queryCachePutCount) {
+
+    public static QueryStats of(Statistics statistics) {
+        return new QueryStats(statistics.isStatisticsEnabled(), statistics.getQueryExecutionCount(),
+            statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+            statistics.getCollectionFetchCount(), statistics.getQueryExecutionMaxTime(),
+            statistics.getQueryExecutionMaxTimeQueryString(),
+            statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+            statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+            statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.payroll.db;
+
+import com.example.payroll.Employee;
+import com.example.payroll.role.Role;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Builds the in-process Ehcache (JCache) manager behind Hibernate's
+ * second-level cache, so region sizes and TTLs come from
+ * {@code payroll.cache.*} properties rather than an XML file.
+ *
+ * Entity regions are named after the entity class. The update-timestamps
+ * region never expires: query results are only valid while it remembers the
+ * last write to each table.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(@Value("${payroll.cache.employee.max-size:10000}") long employeeMaxSize,
+                                       @Value("${payroll.cache.employee.ttl:600000}") long employeeTtlMillis,
+                                       @Value("${payroll.cache.role.max-size:100}") long roleMaxSize,
+                                       @Value("${payroll.cache.query.max-size:1000}") long queryMaxSize,
+                                       @Value("${payroll.cache.query.ttl:60000}") long queryTtlMillis) {
+        EhcacheCachingProvider provider =
+            (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // Passing the configuration directly; any other non-default URI is read as the location of an XML file
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:payroll:hibernate"),
+            new DefaultConfiguration(SecondLevelCacheConfig.class.getClassLoader()));
+
+        createRegion(cacheManager, Employee.class.getName(), employeeMaxSize, employeeTtlMillis);
+        // Roles are few and every write goes through Hibernate, so they are kept until evicted
+        createRegion(cacheManager, Role.class.getName(), roleMaxSize, 0);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxSize, queryTtlMillis);
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 1000, 0);
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, long maxSize, long ttlMillis) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxSize))
+            .withExpiry(ttlMillis > 0
+                ? ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMillis(ttlMillis))
+                : ExpiryPolicyBuilder.noExpiration());
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(builder));
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.payroll.role;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Role {
 
     private @Id @GeneratedValue Long id;
     private String name; // e.g., "developer", "tester"
 
+    @Version
+    @JsonIgnore
+    private long version;
+
     public Role() {}
 
     public Role(String name) {
@@ -26,6 +37,10 @@ public class Role {
         this.id = id;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
     public String getName() {
         return this.name;
     }
@@ -0,0 +1,17 @@
+package com.example.payroll.role;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk role change: the role the employees now have and the ids
+ * of the employees actually moved (those already in the role are left alone).
+ */
+public record RoleAssignment(Long roleId, List<Long> movedEmployeeIds) {
+
+    @JsonProperty("moved")
+    public int moved() {
+        return movedEmployeeIds.size();
+    }
+}
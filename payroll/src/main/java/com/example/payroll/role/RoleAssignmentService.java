@@ -0,0 +1,106 @@
+package com.example.payroll.role;
+
+import com.example.payroll.ETags;
+import com.example.payroll.EmployeeRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves employees between roles with set-based UPDATE statements, one
+ * transaction per operation, instead of one {@code PUT /employees/{id}} each.
+ *
+ * Callers must drop whatever they cache about the moved employees once the
+ * method has returned, i.e. after commit.
+ */
+@Service
+public class RoleAssignmentService {
+
+    // Keeps IN lists well below driver and database limits
+    private static final int ID_CHUNK = 500;
+
+    private final EmployeeRepository employeeRepository;
+    private final RoleRepository roleRepository;
+    private final RoleRegistry registry;
+
+    public RoleAssignmentService(EmployeeRepository employeeRepository, RoleRepository roleRepository,
+                                 RoleRegistry registry) {
+        this.employeeRepository = employeeRepository;
+        this.roleRepository = roleRepository;
+        this.registry = registry;
+    }
+
+    /**
+     * Moves every employee of role {@code fromRoleId} to role {@code toRoleId}.
+     * The source role row stays locked meanwhile, so nobody joins it halfway.
+     */
+    @Transactional
+    public RoleAssignment reassignAll(Long fromRoleId, Long toRoleId) {
+        roleRepository.lockById(fromRoleId).orElseThrow(() -> new RoleNotFoundException(fromRoleId));
+        return moveAll(fromRoleId, target(toRoleId));
+    }
+
+    /**
+     * Moves the listed employees to role {@code roleId}; unknown ids are ignored.
+     */
+    @Transactional
+    public RoleAssignment assign(List<Long> employeeIds, Long roleId) {
+        Role role = target(roleId);
+        List<Long> moved = new ArrayList<>();
+        List<Long> ids = employeeIds.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            int to = Math.min(from + ID_CHUNK, ids.size());
+            List<Long> chunk = employeeRepository.lockIdsNotInRole(ids.subList(from, to), roleId);
+            if (!chunk.isEmpty()) {
+                employeeRepository.assignRole(chunk, role);
+                moved.addAll(chunk);
+            }
+        }
+        return new RoleAssignment(roleId, moved);
+    }
+
+    /**
+     * Deletes a role. If employees still have it they are first moved to
+     * {@code reassignTo}, or the delete is refused with {@link RoleInUseException}.
+     * {@code ifMatch} is checked against the locked row, so no write can slip in between.
+     */
+    @Transactional
+    public RoleAssignment delete(Long roleId, Long reassignTo, String ifMatch) {
+        Role role = roleRepository.lockById(roleId).orElseThrow(() -> new RoleNotFoundException(roleId));
+        ETags.checkIfMatch(ifMatch, ETags.of(role.getId(), role.getVersion()));
+        RoleAssignment assignment = new RoleAssignment(reassignTo, List.of());
+        if (reassignTo != null) {
+            if (reassignTo.equals(roleId)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A role cannot be reassigned to itself");
+            }
+            assignment = moveAll(roleId, target(reassignTo));
+        } else {
+            int members = employeeRepository.lockIdsByRoleId(roleId).size();
+            if (members > 0) {
+                throw new RoleInUseException(roleId, members);
+            }
+        }
+        roleRepository.delete(role);
+        return assignment;
+    }
+
+    private RoleAssignment moveAll(Long fromRoleId, Role to) {
+        if (fromRoleId.equals(to.getId())) {
+            return new RoleAssignment(to.getId(), List.of());
+        }
+        List<Long> moved = employeeRepository.lockIdsByRoleId(fromRoleId);
+        if (!moved.isEmpty()) {
+            employeeRepository.reassignRole(fromRoleId, to);
+        }
+        return new RoleAssignment(to.getId(), moved);
+    }
+
+    private Role target(Long roleId) {
+        return registry.findById(roleId).orElseThrow(() -> new RoleNotFoundException(roleId));
+    }
+}
@@ -1,42 +1,88 @@
 package com.example.payroll.role;
 
+import com.example.payroll.ETags;
+import com.example.payroll.search.EmployeeAutocompleteIndex;
+import com.example.payroll.security.PrincipalCache;
+import com.example.payroll.security.SecurityStampTable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/roles")
 public class RoleController {
 
+    private static final int MAX_ASSIGN_IDS = 10000;
+
     private final RoleRepository repository;
+    private final RoleRegistry registry;
+    private final PrincipalCache principalCache;
+    private final RoleAssignmentService assignmentService;
+    private final SecurityStampTable securityStampTable;
+    private final EmployeeAutocompleteIndex autocompleteIndex;
 
-    public RoleController(RoleRepository repository) {
+    public RoleController(RoleRepository repository, RoleRegistry registry, PrincipalCache principalCache,
+                          RoleAssignmentService assignmentService, SecurityStampTable securityStampTable,
+                          EmployeeAutocompleteIndex autocompleteIndex) {
         this.repository = repository;
+        this.registry = registry;
+        this.principalCache = principalCache;
+        this.assignmentService = assignmentService;
+        this.securityStampTable = securityStampTable;
+        this.autocompleteIndex = autocompleteIndex;
     }
 
     // GET /roles
     @GetMapping
-    List<Role> all() {
-        return repository.findAll();
+    ResponseEntity<List<Role>> all() {
+        return ResponseEntity.ok().eTag(ETags.of("roles", registry.version())).varyBy(HttpHeaders.ACCEPT)
+            .body(registry.findAll());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_CBOR_VALUE)
+    ResponseEntity<List<Role>> allCbor() {
+        return ResponseEntity.ok().eTag(ETags.cbor(ETags.of("roles", registry.version()))).varyBy(HttpHeaders.ACCEPT)
+            .body(registry.findAll());
     }
 
     // POST /roles
     @PostMapping
     Role newRole(@RequestBody Role newRole) {
-        return repository.save(newRole);
+        Role saved = repository.save(newRole);
+        registry.refresh();
+        return saved;
     }
 
     // GET /roles/{id}
     @GetMapping("/{id}")
-    Role one(@PathVariable Long id) {
-        return repository.findById(id)
+    ResponseEntity<Role> one(@PathVariable Long id) {
+        Role role = registry.findById(id)
+            .orElseThrow(() -> new RoleNotFoundException(id));
+        return ResponseEntity.ok().eTag(ETags.of(role.getId(), role.getVersion())).varyBy(HttpHeaders.ACCEPT)
+            .body(role);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    ResponseEntity<Role> oneCbor(@PathVariable Long id) {
+        Role role = registry.findById(id)
             .orElseThrow(() -> new RoleNotFoundException(id));
+        return ResponseEntity.ok().eTag(ETags.cbor(ETags.of(role.getId(), role.getVersion())))
+            .varyBy(HttpHeaders.ACCEPT).body(role);
     }
 
     // PUT /roles/{id}
     @PutMapping("/{id}")
-    Role replaceRole(@RequestBody Role newRole, @PathVariable Long id) {
-        return repository.findById(id)
+    ResponseEntity<Role> replaceRole(@RequestBody Role newRole, @PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Cached principals carry authorities derived from the role name
+        Role saved = repository.findById(id)
             .map(role -> {
+                ETags.checkIfMatch(ifMatch, ETags.of(role.getId(), role.getVersion()));
                 role.setName(newRole.getName());
                 return repository.save(role);
             })
@@ -44,11 +90,51 @@ public class RoleController {
                 newRole.setId(id);
                 return repository.save(newRole);
             });
+        registry.refresh();
+        principalCache.invalidateAll();
+        return ResponseEntity.ok().eTag(ETags.of(saved.getId(), saved.getVersion())).body(saved);
     }
 
-    // DELETE /roles/{id}
+    // POST /roles/{id}/reassign: moves every employee of this role to another one
+    @PostMapping("/{id}/reassign")
+    @PreAuthorize("hasRole('ADMIN')")
+    RoleAssignment reassign(@PathVariable Long id, @RequestBody RoleReassignRequest request) {
+        if (request.toRoleId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "toRoleId is required");
+        }
+        return employeesMoved(assignmentService.reassignAll(id, request.toRoleId()));
+    }
+
+    // POST /roles/{id}/employees: moves the listed employees into this role
+    @PostMapping("/{id}/employees")
+    @PreAuthorize("hasRole('ADMIN')")
+    RoleAssignment assign(@PathVariable Long id, @RequestBody RoleMembersRequest request) {
+        List<Long> employeeIds = request.employeeIds() != null ? request.employeeIds() : List.of();
+        if (employeeIds.size() > MAX_ASSIGN_IDS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "At most " + MAX_ASSIGN_IDS + " employees can be moved at once");
+        }
+        return employeesMoved(assignmentService.assign(employeeIds, id));
+    }
+
+    // DELETE /roles/{id}[?reassignTo=]: refused with 409 while employees still have the role
     @DeleteMapping("/{id}")
-    void deleteRole(@PathVariable Long id) {
-        repository.deleteById(id);
+    @PreAuthorize("hasRole('ADMIN')")
+    RoleAssignment deleteRole(@PathVariable Long id, @RequestParam(required = false) Long reassignTo,
+                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        RoleAssignment assignment = assignmentService.delete(id, reassignTo, ifMatch);
+        registry.refresh();
+        principalCache.invalidateAll();
+        return employeesMoved(assignment);
+    }
+
+    // Runs after commit: drops what the caches hold about the moved employees
+    private RoleAssignment employeesMoved(RoleAssignment assignment) {
+        principalCache.invalidateEmployees(assignment.movedEmployeeIds());
+        for (Long employeeId : assignment.movedEmployeeIds()) {
+            securityStampTable.rotate(employeeId);
+            autocompleteIndex.update(employeeId, null, assignment.roleId());
+        }
+        return assignment;
     }
-}
\ No newline at end of file
+}
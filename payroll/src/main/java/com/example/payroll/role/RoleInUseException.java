@@ -0,0 +1,12 @@
+package com.example.payroll.role;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RoleInUseException extends RuntimeException {
+
+    public RoleInUseException(Long id, int employees) {
+        super("Role " + id + " is still assigned to " + employees + " employees; pass reassignTo to move them first");
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.payroll.role;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /roles/{id}/employees}: the employees to move into the role.
+ */
+public record RoleMembersRequest(List<Long> employeeIds) {
+}
@@ -0,0 +1,7 @@
+package com.example.payroll.role;
+
+/**
+ * Body of {@code POST /roles/{id}/reassign}: the role that takes over all employees.
+ */
+public record RoleReassignRequest(Long toRoleId) {
+}
@@ -0,0 +1,127 @@
+package com.example.payroll.role;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the role table.
+ *
+ * Roles are a handful of rows that almost never change, so every lookup is
+ * served from an immutable snapshot. {@link RoleController} calls
+ * {@link #refresh()} after each write, which swaps in a new snapshot atomically.
+ * Refreshes run one at a time, so the snapshot installed last is always the
+ * one read last and a slower, older reload can never overwrite a newer one.
+ * The {@link Role} instances handed out are shared and must not be modified.
+ */
+@Component
+public class RoleRegistry {
+
+    private final RoleRepository repository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    // A lock rather than synchronized, so a refresh on a virtual thread does not pin its carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public RoleRegistry(RoleRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            snapshot.set(load());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        List<Role> roles = repository.findAll();
+
+        Map<Long, Role> byId = new HashMap<>();
+        Map<String, Role> byName = new HashMap<>();
+        Map<Long, List<GrantedAuthority>> authorities = new HashMap<>();
+        long maxId = 0;
+        long versionSum = 0;
+        for (Role role : roles) {
+            byId.put(role.getId(), role);
+            maxId = Math.max(maxId, role.getId());
+            versionSum += role.getVersion();
+            if (role.getName() != null) {
+                // MySQL compares names case-insensitively, so the index does too
+                byName.putIfAbsent(role.getName().toLowerCase(Locale.ROOT), role);
+                authorities.put(role.getId(), List.of(new SimpleGrantedAuthority(authorityName(role))));
+            }
+        }
+        String version = roles.size() + "-" + maxId + "-" + versionSum;
+        return new Snapshot(List.copyOf(roles), Map.copyOf(byId), Map.copyOf(byName), Map.copyOf(authorities),
+            version);
+    }
+
+    public List<Role> findAll() {
+        return current().roles();
+    }
+
+    public Optional<Role> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(current().byId().get(id));
+    }
+
+    public Optional<Role> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(current().byName().get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * The granted authorities for a role, built once per snapshot.
+     */
+    public List<GrantedAuthority> authoritiesFor(Role role) {
+        return role == null ? Collections.emptyList() : authoritiesFor(role.getId(), role.getName());
+    }
+
+    public List<GrantedAuthority> authoritiesFor(Long roleId, String roleName) {
+        if (roleName == null) {
+            return Collections.emptyList();
+        }
+        List<GrantedAuthority> authorities = current().authorities().get(roleId);
+        return authorities != null ? authorities : List.of(new SimpleGrantedAuthority(authorityName(roleName)));
+    }
+
+    /**
+     * Changes whenever a role is added, renamed or removed; used for ETags.
+     */
+    public String version() {
+        return current().version();
+    }
+
+    public static String authorityName(Role role) {
+        return authorityName(role.getName());
+    }
+
+    public static String authorityName(String roleName) {
+        return "ROLE_" + roleName.toUpperCase();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private record Snapshot(List<Role> roles, Map<Long, Role> byId, Map<String, Role> byName,
+                            Map<Long, List<GrantedAuthority>> authorities, String version) {
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.payroll.role;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
     
     Optional<Role> findByName(String name);
+
+    // Held while a role is emptied and deleted, so no employee can be given the role meanwhile
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Role r where r.id = :id")
+    Optional<Role> lockById(Long id);
 }
\ No newline at end of file
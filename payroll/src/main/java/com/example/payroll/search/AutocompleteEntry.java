@@ -0,0 +1,8 @@
+package com.example.payroll.search;
+
+/**
+ * An employee as held by {@link EmployeeAutocompleteIndex}: just enough to
+ * render a suggestion and filter by role.
+ */
+public record AutocompleteEntry(long id, String name, String username, Long roleId) {
+}
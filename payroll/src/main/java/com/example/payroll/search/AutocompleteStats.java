@@ -0,0 +1,8 @@
+package com.example.payroll.search;
+
+/**
+ * Size of {@link EmployeeAutocompleteIndex}. Byte counts are estimates of
+ * retained heap, assuming compact strings and compressed oops.
+ */
+public record AutocompleteStats(int employees, int keys, long estimatedBytes, long estimatedBytesPerEmployee) {
+}
@@ -0,0 +1,175 @@
+package com.example.payroll.search;
+
+import com.example.payroll.Employee;
+import com.example.payroll.EmployeeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory prefix index over employee names and usernames for autocomplete.
+ *
+ * Every word of the name and the username are stored lower-cased in a sorted
+ * map as {@code term + '\0' + id}, so a prefix lookup is a range scan that
+ * never touches the database. The index is built from {@link EmployeeRepository}
+ * once the application is ready and is then kept current by the code paths
+ * that create, update or delete employees.
+ */
+@Component
+public class EmployeeAutocompleteIndex {
+
+    private static final int BUILD_CHUNK = 1000;
+    private static final char SEPARATOR = '\0';
+
+    // Rough heap cost of a skip-list node plus its share of index levels, and of an entry record
+    private static final long NODE_BYTES = 40;
+    private static final long ENTRY_BYTES = 32;
+
+    private final EmployeeRepository employeeRepository;
+    private final NavigableMap<String, AutocompleteEntry> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, AutocompleteEntry> byId = new ConcurrentHashMap<>();
+    private final LongAdder estimatedBytes = new LongAdder();
+
+    public EmployeeAutocompleteIndex(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        byId.keySet().forEach(this::remove);
+        long after = 0;
+        List<Employee> chunk;
+        do {
+            chunk = employeeRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(BUILD_CHUNK));
+            for (Employee employee : chunk) {
+                put(employee);
+                after = employee.getId();
+            }
+        } while (chunk.size() == BUILD_CHUNK);
+    }
+
+    public void put(Employee employee) {
+        if (employee.getId() == null) {
+            return;
+        }
+        AutocompleteEntry entry = new AutocompleteEntry(employee.getId(), employee.getName(), employee.getUsername(),
+            employee.getRoleId());
+        // compute() serializes concurrent updates to the same employee
+        byId.compute(entry.id(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Applies a partial update to an indexed employee; null arguments are left as they are.
+     */
+    public void update(Long employeeId, String name, Long roleId) {
+        if (employeeId == null || (name == null && roleId == null)) {
+            return;
+        }
+        byId.computeIfPresent(employeeId, (id, previous) -> {
+            AutocompleteEntry entry = new AutocompleteEntry(id, name != null ? name : previous.name(),
+                previous.username(), roleId != null ? roleId : previous.roleId());
+            unindex(previous);
+            index(entry);
+            return entry;
+        });
+    }
+
+    public void remove(Long employeeId) {
+        if (employeeId == null) {
+            return;
+        }
+        byId.computeIfPresent(employeeId, (id, previous) -> {
+            unindex(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Up to {@code limit} employees with a name word or username starting with
+     * {@code prefix}, in term order, optionally restricted to one role.
+     */
+    public List<AutocompleteEntry> complete(String prefix, Long roleId, int limit) {
+        String from = normalize(prefix);
+        if (from.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<AutocompleteEntry> matches = new LinkedHashSet<>();
+        for (AutocompleteEntry entry : terms.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            if (roleId == null || roleId.equals(entry.roleId())) {
+                matches.add(entry);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    public AutocompleteStats stats() {
+        int employees = byId.size();
+        long bytes = estimatedBytes.sum();
+        return new AutocompleteStats(employees, terms.size(), bytes, employees == 0 ? 0 : bytes / employees);
+    }
+
+    private void index(AutocompleteEntry entry) {
+        estimatedBytes.add(ENTRY_BYTES + stringBytes(entry.name()) + stringBytes(entry.username()));
+        for (String term : terms(entry)) {
+            String key = term + SEPARATOR + entry.id();
+            terms.put(key, entry);
+            estimatedBytes.add(NODE_BYTES + stringBytes(key));
+        }
+    }
+
+    private void unindex(AutocompleteEntry entry) {
+        estimatedBytes.add(-(ENTRY_BYTES + stringBytes(entry.name()) + stringBytes(entry.username())));
+        for (String term : terms(entry)) {
+            String key = term + SEPARATOR + entry.id();
+            if (terms.remove(key) != null) {
+                estimatedBytes.add(-(NODE_BYTES + stringBytes(key)));
+            }
+        }
+    }
+
+    private static Set<String> terms(AutocompleteEntry entry) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (entry.name() != null) {
+            for (String word : normalize(entry.name()).split("\\s+")) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        String username = normalize(entry.username());
+        if (!username.isEmpty()) {
+            terms.add(username);
+        }
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // String header plus its byte[] (one byte per Latin-1 char), 8-byte aligned
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + ((16 + value.length() + 7) & ~7);
+    }
+}
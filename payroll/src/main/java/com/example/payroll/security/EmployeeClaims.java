@@ -0,0 +1,10 @@
+package com.example.payroll.security;
+
+import com.example.payroll.EmployeeSummary;
+
+/**
+ * The employee a stateless-claims token was issued for, and the security
+ * stamp the employee had at the time.
+ */
+public record EmployeeClaims(EmployeeSummary employee, int securityStamp) {
+}
@@ -1,41 +1,51 @@
 package com.example.payroll.security;
 
-import com.example.payroll.Employee;
+import com.example.payroll.EmployeeSummary;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
-import java.util.Collections;
 
+/**
+ * The authenticated principal. It carries an {@link EmployeeSummary} rather than
+ * the {@code Employee} entity so that resolving it never hydrates managed entities,
+ * and the security stamp it was loaded (or, in stateless-claims mode, issued) with.
+ */
 public class EmployeeUserDetails implements UserDetails {
 
-    private final Employee employee;
+    private final EmployeeSummary employee;
+    private final String password;
+    private final int securityStamp;
+    private final Collection<? extends GrantedAuthority> authorities;
 
-    public EmployeeUserDetails(Employee employee) {
+    public EmployeeUserDetails(EmployeeSummary employee, String password, int securityStamp,
+                               Collection<? extends GrantedAuthority> authorities) {
         this.employee = employee;
+        this.password = password;
+        this.securityStamp = securityStamp;
+        this.authorities = authorities;
     }
 
-    public Employee getEmployee() {
+    public EmployeeSummary getEmployee() {
         return employee;
     }
 
+    public int getSecurityStamp() {
+        return securityStamp;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if (employee.getRole() != null) {
-            String roleName = "ROLE_" + employee.getRole().getName().toUpperCase();
-            return Collections.singletonList(new SimpleGrantedAuthority(roleName));
-        }
-        return Collections.emptyList();
+        return authorities;
     }
 
     @Override
     public String getPassword() {
-        return employee.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return employee.getUsername();
+        return employee.username();
     }
 
     @Override
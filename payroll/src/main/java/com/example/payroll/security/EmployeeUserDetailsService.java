@@ -1,7 +1,8 @@
 package com.example.payroll.security;
 
-import com.example.payroll.Employee;
+import com.example.payroll.EmployeeCredentials;
 import com.example.payroll.EmployeeRepository;
+import com.example.payroll.role.RoleRegistry;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,16 +12,19 @@ import org.springframework.stereotype.Service;
 public class EmployeeUserDetailsService implements UserDetailsService {
 
     private final EmployeeRepository employeeRepository;
+    private final RoleRegistry roleRegistry;
 
-    public EmployeeUserDetailsService(EmployeeRepository employeeRepository) {
+    public EmployeeUserDetailsService(EmployeeRepository employeeRepository, RoleRegistry roleRegistry) {
         this.employeeRepository = employeeRepository;
+        this.roleRegistry = roleRegistry;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Employee employee = employeeRepository.findByUsername(username)
+        EmployeeCredentials credentials = employeeRepository.findCredentialsByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        
-        return new EmployeeUserDetails(employee);
+
+        return new EmployeeUserDetails(credentials.summary(), credentials.password(), credentials.securityStamp(),
+            roleRegistry.authoritiesFor(credentials.summary().roleId(), credentials.summary().roleName()));
     }
 }
@@ -0,0 +1,8 @@
+package com.example.payroll.security;
+
+/**
+ * Point-in-time view of the {@link PasswordHashingService} executor.
+ */
+public record HashingStats(int threads, int activeThreads, int queueDepth, int queueCapacity, long completed,
+                           long rejected, double meanLatencyMillis, double maxLatencyMillis) {
+}
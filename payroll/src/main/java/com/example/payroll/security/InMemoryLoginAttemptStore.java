@@ -0,0 +1,103 @@
+package com.example.payroll.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window counters held in memory.
+ *
+ * Each key owns a small ring of time buckets; the window count is the sum of the
+ * buckets that are still inside the window.
+ *
+ * The map holds at most about {@code maxKeys} keys. When a new key arrives at the
+ * cap, keys whose buckets have all aged out are swept, at most once per bucket so
+ * a full map of live keys does not cost a scan per attempt. If the map is still
+ * full, arbitrary keys are dropped; a flood of distinct keys can thus forget some
+ * counters early, which the per-address limit in {@link LoginThrottle} bounds.
+ */
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private static final int BUCKETS = 6;
+
+    private final Map<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    private final long bucketMillis;
+    private final int maxKeys;
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    public InMemoryLoginAttemptStore(long windowMillis, int maxKeys) {
+        this.bucketMillis = Math.max(1, windowMillis / BUCKETS);
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public long increment(String key, long nowMillis) {
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter == null) {
+            makeRoom(nowMillis);
+            counter = counters.computeIfAbsent(key, k -> new SlidingWindowCounter());
+        }
+        return counter.increment(nowMillis / bucketMillis);
+    }
+
+    @Override
+    public long count(String key, long nowMillis) {
+        SlidingWindowCounter counter = counters.get(key);
+        return counter == null ? 0 : counter.sum(nowMillis / bucketMillis);
+    }
+
+    @Override
+    public void reset(String key) {
+        counters.remove(key);
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private void makeRoom(long nowMillis) {
+        if (counters.size() < maxKeys) {
+            return;
+        }
+        long due = nextSweep.get();
+        if (nowMillis >= due && nextSweep.compareAndSet(due, nowMillis + bucketMillis)) {
+            long epoch = nowMillis / bucketMillis;
+            counters.values().removeIf(counter -> counter.sum(epoch) == 0);
+        }
+        Iterator<String> keys = counters.keySet().iterator();
+        while (counters.size() >= maxKeys && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class SlidingWindowCounter {
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+
+        long increment(long epoch) {
+            int slot = (int) (epoch % BUCKETS);
+            long seen = epochs.get(slot);
+            // First writer into a recycled bucket clears it; a racing increment may be
+            // lost at the boundary, which is fine for throttling
+            if (seen != epoch && epochs.compareAndSet(slot, seen, epoch)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+            return sum(epoch);
+        }
+
+        long sum(long epoch) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (epoch - epochs.get(i) < BUCKETS) {
+                    total += counts.get(i);
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -1,28 +1,57 @@
 package com.example.payroll.security;
 
+import com.example.payroll.EmployeeSummary;
+import com.example.payroll.role.Role;
+import com.example.payroll.role.RoleRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final EmployeeUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final SecurityStampTable stampTable;
+    private final RoleRegistry roleRegistry;
+    private final TokenRevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, EmployeeUserDetailsService userDetailsService) {
+    // Resolved once; looking meters up by name on every request would cost more than what they measure
+    private final Timer tokenParseTimer;
+    private final Timer cachedLookupTimer;
+    private final Timer databaseLookupTimer;
+    private final Timer claimsLookupTimer;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, EmployeeUserDetailsService userDetailsService,
+                                   PrincipalCache principalCache, SecurityStampTable stampTable,
+                                   RoleRegistry roleRegistry, TokenRevocationList revocationList,
+                                   MeterRegistry meterRegistry) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.stampTable = stampTable;
+        this.roleRegistry = roleRegistry;
+        this.revocationList = revocationList;
+        this.tokenParseTimer = Timer.builder("payroll.jwt.parse").register(meterRegistry);
+        this.cachedLookupTimer = Timer.builder("payroll.auth.user.lookup").tag("source", "cache")
+            .register(meterRegistry);
+        this.databaseLookupTimer = Timer.builder("payroll.auth.user.lookup").tag("source", "database")
+            .register(meterRegistry);
+        this.claimsLookupTimer = Timer.builder("payroll.auth.user.lookup").tag("source", "claims")
+            .register(meterRegistry);
     }
 
     @Override
@@ -31,10 +60,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            ParsedToken token = StringUtils.hasText(jwt)
+                ? tokenParseTimer.record(() -> tokenProvider.parseToken(jwt).orElse(null))
+                : null;
+            // Refresh tokens are only good for /auth/refresh; revoked ones for nothing
+            if (token != null && (token.refresh() || revocationList.isRevoked(token.tokenId()))) {
+                token = null;
+            }
+
+            EmployeeUserDetails userDetails = null;
+            if (token != null) {
+                long start = System.nanoTime();
+                if (token.employee() != null && stampTable.isEnabled()) {
+                    // Stateless claims: the token describes the principal, the stamp table says if it still holds
+                    userDetails = fromClaims(token.employee());
+                    claimsLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } else {
+                    // Reuse the principal resolved by an earlier request when possible
+                    userDetails = principalCache.get(token.username(), token.issuedAt());
+                    if (userDetails != null) {
+                        cachedLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    } else {
+                        long loadGeneration = principalCache.loadGeneration();
+                        userDetails = (EmployeeUserDetails) userDetailsService.loadUserByUsername(token.username());
+                        principalCache.put(userDetails, loadGeneration);
+                        databaseLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
 
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, 
@@ -51,6 +106,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private EmployeeUserDetails fromClaims(EmployeeClaims claims) {
+        EmployeeSummary employee = claims.employee();
+        if (!stampTable.isCurrent(employee.id(), claims.securityStamp())) {
+            return null;
+        }
+        // The role is looked up by id so a renamed or deleted role takes effect without reissuing tokens
+        Role role = roleRegistry.findById(employee.roleId()).orElse(null);
+        EmployeeSummary current = role == null ? employee
+            : new EmployeeSummary(employee.id(), employee.username(), employee.name(), role.getId(), role.getName());
+        return new EmployeeUserDetails(current, null, claims.securityStamp(), roleRegistry.authoritiesFor(role));
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,6 +1,12 @@
 package com.example.payroll.security;
 
+import com.example.payroll.EmployeeSummary;
+import com.example.payroll.cache.CacheStats;
+import com.example.payroll.cache.ExpiringCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,50 +14,147 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret:mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm}")
-    private String jwtSecret;
+    private static final String EMPLOYEE_ID = "eid";
+    private static final String NAME = "name";
+    private static final String ROLE_ID = "rid";
+    private static final String ROLE = "role";
+    private static final String SECURITY_STAMP = "stm";
+    private static final String TOKEN_TYPE = "typ";
+    private static final String REFRESH = "refresh";
 
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+
+    // Signing key and parser are immutable and thread-safe, so build them once
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    // Tokens that already passed signature verification, dropped at their expiry
+    private final ExpiringCache<String, ParsedToken> verifiedTokens;
+
+    public JwtTokenProvider(@Value("${jwt.secret:mySecretKeyThatIsAtLeast256BitsLongForHS256Algorithm}") String jwtSecret,
+                            @Value("${jwt.expiration:86400000}") long jwtExpiration,
+                            @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiration,
+                            @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheSize) {
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.verifiedTokens = new ExpiringCache<>(verifiedCacheSize);
+    }
 
     public String generateToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+        return buildToken(username, null, null, false);
+    }
 
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * A stateless-claims token: besides the subject it carries everything
+     * {@link JwtAuthenticationFilter} needs to build the principal without a query.
+     */
+    public String generateToken(EmployeeSummary employee, int securityStamp) {
+        return buildToken(employee.username(), employee, securityStamp, false);
+    }
 
-        return Jwts.builder()
-                .subject(username)
+    /**
+     * The refresh token carries the security stamp, so /auth/refresh refuses it
+     * once the employee's role or password has changed.
+     */
+    public TokenPair generateTokenPair(String username, int securityStamp) {
+        return new TokenPair(buildToken(username, null, null, false), buildToken(username, null, securityStamp, true));
+    }
+
+    /**
+     * A stateless-claims pair; the refresh token carries the stamp too, so a
+     * role or password change also retires it.
+     */
+    public TokenPair generateTokenPair(EmployeeSummary employee, int securityStamp) {
+        return new TokenPair(buildToken(employee.username(), employee, securityStamp, false),
+            buildToken(employee.username(), employee, securityStamp, true));
+    }
+
+    // Every token gets a random id so it can be revoked on its own
+    private String buildToken(String username, EmployeeSummary employee, Integer securityStamp, boolean refresh) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + (refresh ? refreshExpiration : jwtExpiration));
+
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(username);
+        if (employee != null) {
+            builder.claim(EMPLOYEE_ID, employee.id())
+                .claim(NAME, employee.name())
+                .claim(ROLE_ID, employee.roleId())
+                .claim(ROLE, employee.roleName());
+        }
+        if (securityStamp != null) {
+            builder.claim(SECURITY_STAMP, securityStamp);
+        }
+        if (refresh) {
+            builder.claim(TOKEN_TYPE, REFRESH);
+        }
+        return builder
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verifies the token and extracts its claims in a single parse.
+     * Returns empty if the token is malformed, forged or expired.
+     */
+    public Optional<ParsedToken> parseToken(String token) {
+        ParsedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+
+        ParsedToken parsed = new ParsedToken(claims.getId(), claims.getSubject(), claims.getIssuedAt(),
+            claims.getExpiration(), REFRESH.equals(claims.get(TOKEN_TYPE, String.class)),
+            claims.get(SECURITY_STAMP, Integer.class), employeeClaims(claims));
+        if (parsed.expiration() != null) {
+            verifiedTokens.put(token, parsed, parsed.expiration().getTime());
+        }
+        return Optional.of(parsed);
+    }
+
+    private static EmployeeClaims employeeClaims(Claims claims) {
+        Long employeeId = claims.get(EMPLOYEE_ID, Long.class);
+        Integer securityStamp = claims.get(SECURITY_STAMP, Integer.class);
+        if (employeeId == null || securityStamp == null) {
+            return null;
+        }
+        EmployeeSummary employee = new EmployeeSummary(employeeId, claims.getSubject(), claims.get(NAME, String.class),
+            claims.get(ROLE_ID, Long.class), claims.get(ROLE, String.class));
+        return new EmployeeClaims(employee, securityStamp);
+    }
+
     public String getUsernameFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        return parseToken(token)
+                .map(ParsedToken::username)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
     }
 
     public boolean validateToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
-        }
+        return parseToken(token).isPresent();
+    }
+
+    public CacheStats verifiedTokenStats() {
+        return verifiedTokens.stats();
     }
 }
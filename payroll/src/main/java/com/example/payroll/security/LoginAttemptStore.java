@@ -0,0 +1,22 @@
+package com.example.payroll.security;
+
+/**
+ * Counts login attempts per key over a sliding time window.
+ *
+ * The default is {@link InMemoryLoginAttemptStore}; define a bean of this type
+ * to share counters between instances (e.g. backed by Redis).
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Records one attempt and returns the number of attempts in the current window.
+     */
+    long increment(String key, long nowMillis);
+
+    /**
+     * Returns the number of attempts in the current window without recording one.
+     */
+    long count(String key, long nowMillis);
+
+    void reset(String key);
+}
@@ -0,0 +1,98 @@
+package com.example.payroll.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rejects login attempts before they reach BCrypt when a username has failed
+ * too often, or a client address has tried too often, within the window.
+ *
+ * An accepted attempt is counted against its username up front and only
+ * forgiven by {@link #recordSuccess}, so concurrent guesses cannot all pass
+ * the check before any of their failures is recorded.
+ *
+ * Client addresses come from {@code ServletRequest#getRemoteAddr}. Behind a
+ * reverse proxy that is the proxy's address unless
+ * {@code server.forward-headers-strategy} is set (see application.properties).
+ *
+ * Token refreshes are limited per username too: each one adds an entry to the
+ * {@link TokenRevocationList}, so one account must not be able to fill it.
+ */
+@Component
+public class LoginThrottle {
+
+    private final LoginAttemptStore store;
+    private final long maxFailuresPerUsername;
+    private final long maxAttemptsPerIp;
+    private final long maxRefreshesPerUsername;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedRefreshes = new LongAdder();
+
+    public LoginThrottle(ObjectProvider<LoginAttemptStore> store,
+                         @Value("${security.login.window:60000}") long windowMillis,
+                         @Value("${security.login.max-failures-per-username:5}") long maxFailuresPerUsername,
+                         @Value("${security.login.max-attempts-per-ip:50}") long maxAttemptsPerIp,
+                         @Value("${security.login.max-refreshes-per-username:10}") long maxRefreshesPerUsername,
+                         @Value("${security.login.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.store = store.getIfAvailable(() -> new InMemoryLoginAttemptStore(windowMillis, maxTrackedKeys));
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxRefreshesPerUsername = maxRefreshesPerUsername;
+    }
+
+    /**
+     * Returns false if the attempt must be rejected without checking the password.
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (store.increment(ipKey(clientIp), now) > maxAttemptsPerIp) {
+            rejectedByIp.increment();
+            return false;
+        }
+        // Count the attempt as a failure now; a successful login resets it
+        if (store.increment(usernameKey(username), now) > maxFailuresPerUsername) {
+            rejectedByUsername.increment();
+            return false;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Returns false if the username has refreshed its tokens too often within the window.
+     */
+    public boolean tryRefresh(String username) {
+        if (store.increment(refreshKey(username), System.currentTimeMillis()) > maxRefreshesPerUsername) {
+            rejectedRefreshes.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void recordSuccess(String username) {
+        store.reset(usernameKey(username));
+    }
+
+    public LoginThrottleStats stats() {
+        return new LoginThrottleStats(accepted.sum(), rejectedByUsername.sum(), rejectedByIp.sum(), rejectedRefreshes.sum());
+    }
+
+    private static String usernameKey(String username) {
+        return "user:" + (username == null ? "" : username.toLowerCase(Locale.ROOT));
+    }
+
+    private static String refreshKey(String username) {
+        return "refresh:" + (username == null ? "" : username.toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.payroll.security;
+
+/**
+ * Counters for {@link LoginThrottle}, used to tune its limits.
+ */
+public record LoginThrottleStats(long accepted, long rejectedByUsername, long rejectedByIp, long rejectedRefreshes) {
+}
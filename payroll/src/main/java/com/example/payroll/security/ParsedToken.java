@@ -0,0 +1,13 @@
+package com.example.payroll.security;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been verified.
+ * {@code tokenId} is null for tokens issued before tokens carried an id,
+ * {@code securityStamp} is null for access tokens outside stateless-claims mode,
+ * and {@code employee} is null unless the token was issued in that mode.
+ */
+public record ParsedToken(String tokenId, String username, Date issuedAt, Date expiration, boolean refresh,
+                          Integer securityStamp, EmployeeClaims employee) {
+}
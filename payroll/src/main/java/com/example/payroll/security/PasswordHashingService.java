@@ -0,0 +1,139 @@
+package com.example.payroll.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how much BCrypt work runs at once by hashing on a dedicated, bounded pool.
+ *
+ * This is a concurrency cap, not an async hand-off: the calling request thread
+ * still waits for its hash. What the pool buys is that concurrent hashes never
+ * exceed the CPU count, so a login or registration storm cannot oversubscribe
+ * the machine, and its queue is bounded: once it is full, callers get a
+ * {@link HashingCapacityExceededException} (HTTP 429) right away rather than
+ * piling up behind each other.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.hashing.threads:0}") int threads,
+                                  @Value("${security.hashing.queue-capacity:256}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueCapacity = queueCapacity;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(rawPassword));
+    }
+
+    /**
+     * Hashes many passwords, keeping at most half a queue's worth in flight so a
+     * large batch cannot starve interactive callers.
+     *
+     * All or nothing: if the queue is full part-way through, the hashes still
+     * queued are cancelled and {@link HashingCapacityExceededException} is
+     * thrown. Callers hash before writing anything, so the whole batch can
+     * simply be retried.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int window = Math.max(1, queueCapacity / 2);
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            int to = Math.min(from + window, rawPasswords.size());
+            List<Future<String>> inFlight = new ArrayList<>(to - from);
+            try {
+                for (String rawPassword : rawPasswords.subList(from, to)) {
+                    inFlight.add(submit(rawPassword));
+                }
+            } catch (HashingCapacityExceededException ex) {
+                inFlight.forEach(hash -> hash.cancel(false));
+                throw ex;
+            }
+            for (Future<String> hash : inFlight) {
+                hashes.add(await(hash));
+            }
+        }
+        return hashes;
+    }
+
+    public HashingStats stats() {
+        long completed = executor.getCompletedTaskCount();
+        return new HashingStats(executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+            queueCapacity, completed, rejected.sum(),
+            completed == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / completed, maxNanos.get() / 1_000_000.0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private Future<String> submit(String rawPassword) {
+        try {
+            return executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return passwordEncoder.encode(rawPassword);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    totalNanos.add(elapsed);
+                    maxNanos.accumulate(elapsed);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new HashingCapacityExceededException();
+        }
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.payroll.security;
+
+import com.example.payroll.cache.CacheStats;
+import com.example.payroll.cache.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caches the principals resolved by {@link JwtAuthenticationFilter} so that an
+ * authenticated request does not need a database round trip to rebuild its
+ * {@link EmployeeUserDetails}.
+ *
+ * Entries are keyed by username. A cached principal is only reused for tokens
+ * issued before it was loaded, so a fresh login always sees the current row.
+ *
+ * Callers take a {@link #loadGeneration()} before reading the employee and
+ * pass it to {@link #put}. Each invalidation bumps a generation, recorded per
+ * employee in a fixed set of stripes, and a principal whose load started
+ * before its employee's last invalidation is not cached. Otherwise a load
+ * racing an update could put the old row back right after it was evicted.
+ *
+ * It also serves as the {@link UserCache} of the login provider, where entries are
+ * only trusted for a much shorter time.
+ */
+@Component
+public class PrincipalCache implements UserCache {
+
+    private static final int STRIPES = 1024;
+
+    private final ExpiringCache<String, CachedPrincipal> cache;
+    private final long ttlMillis;
+    private final long loginTtlMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+    // Latest invalidation per stripe of employee ids; employees sharing a stripe just miss a little more often
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+    private final AtomicLong allInvalidatedAt = new AtomicLong();
+    // Generation taken by getUserFromCache, for the putUserInCache that follows on the same thread
+    private final ThreadLocal<Long> pendingLogin = new ThreadLocal<>();
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl:300000}") long ttlMillis,
+                          @Value("${security.principal-cache.login-ttl:30000}") long loginTtlMillis) {
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+        this.loginTtlMillis = loginTtlMillis;
+    }
+
+    public EmployeeUserDetails get(String username, Date tokenIssuedAt) {
+        CachedPrincipal cached = cache.get(username);
+        if (cached == null) {
+            return null;
+        }
+        // iat has whole-second precision: the token may have been issued up to 999 ms after it
+        if (tokenIssuedAt != null && tokenIssuedAt.getTime() + 1000 > cached.loadedAtMillis()) {
+            cache.invalidate(username);
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    /**
+     * To be taken before the employee is read; see {@link #put}.
+     */
+    public long loadGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a principal unless its employee was invalidated after {@code loadGeneration}.
+     */
+    public void put(EmployeeUserDetails userDetails, long loadGeneration) {
+        Long employeeId = userDetails.getEmployee().id();
+        if (invalidatedSince(employeeId, loadGeneration)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        cache.put(userDetails.getUsername(), new CachedPrincipal(userDetails, now), now + ttlMillis);
+        // An invalidation may have run between the check and the put; it bumps the generation before evicting
+        if (invalidatedSince(employeeId, loadGeneration)) {
+            cache.invalidate(userDetails.getUsername());
+        }
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        pendingLogin.set(generation.get());
+        CachedPrincipal cached = cache.get(username);
+        if (cached == null || System.currentTimeMillis() - cached.loadedAtMillis() > loginTtlMillis) {
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        Long loadGeneration = pendingLogin.get();
+        pendingLogin.remove();
+        if (loadGeneration != null) {
+            put((EmployeeUserDetails) user, loadGeneration);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateEmployee(Long employeeId) {
+        markInvalidated(employeeId, generation.incrementAndGet());
+        cache.invalidateIf((username, cached) ->
+            Objects.equals(cached.userDetails().getEmployee().id(), employeeId));
+    }
+
+    // One pass over the cache however many employees changed
+    public void invalidateEmployees(Collection<Long> employeeIds) {
+        Set<Long> ids = new HashSet<>(employeeIds);
+        long current = generation.incrementAndGet();
+        ids.forEach(id -> markInvalidated(id, current));
+        cache.invalidateIf((username, cached) -> ids.contains(cached.userDetails().getEmployee().id()));
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt.accumulateAndGet(generation.incrementAndGet(), Math::max);
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private void markInvalidated(Long employeeId, long at) {
+        if (employeeId != null) {
+            invalidatedAt.accumulateAndGet(stripe(employeeId), at, Math::max);
+        }
+    }
+
+    private boolean invalidatedSince(Long employeeId, long loadGeneration) {
+        return allInvalidatedAt.get() > loadGeneration
+            || (employeeId != null && invalidatedAt.get(stripe(employeeId)) > loadGeneration);
+    }
+
+    private static int stripe(Long employeeId) {
+        return Math.floorMod(Long.hashCode(employeeId), STRIPES);
+    }
+
+    private record CachedPrincipal(EmployeeUserDetails userDetails, long loadedAtMillis) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.payroll.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RevocationCapacityExceededException extends RuntimeException {
+
+    public RevocationCapacityExceededException() {
+        super("Too many revoked tokens outstanding, please retry later");
+    }
+}
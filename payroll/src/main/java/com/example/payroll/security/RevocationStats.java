@@ -0,0 +1,7 @@
+package com.example.payroll.security;
+
+/**
+ * Counters for {@link TokenRevocationList}: ids currently held and requests turned away.
+ */
+public record RevocationStats(int active, long rejected) {
+}
@@ -0,0 +1,7 @@
+package com.example.payroll.security;
+
+/**
+ * An employee's current security stamp, as loaded into {@link SecurityStampTable}.
+ */
+public record SecurityStamp(Long employeeId, Integer stamp) {
+}
@@ -0,0 +1,93 @@
+package com.example.payroll.security;
+
+import com.example.payroll.Employee;
+import com.example.payroll.EmployeeRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every employee's security stamp, used in stateless-claims
+ * mode ({@code security.jwt.stateless-claims}) to reject stale tokens without
+ * a query.
+ *
+ * A token is accepted only while the stamp it carries equals the employee's
+ * current one. The stamp is bumped when an employee's role or password
+ * changes, and a deleted employee has no entry at all. The stamp column is the
+ * source of truth, so the table is rebuilt from it on startup, before the web
+ * server accepts requests. Stamps only grow, so the larger value wins when a
+ * load meets a newer rotation. Writes made by
+ * another instance are not seen until restart, so the mode assumes a single
+ * instance.
+ */
+@Component
+public class SecurityStampTable implements SmartInitializingSingleton {
+
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+    private final Map<Long, Integer> stamps = new ConcurrentHashMap<>();
+
+    public SecurityStampTable(EmployeeRepository employeeRepository,
+                              @Value("${security.jwt.stateless-claims:false}") boolean enabled) {
+        this.employeeRepository = employeeRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (SecurityStamp stamp : employeeRepository.findSecurityStamps()) {
+            stamps.merge(stamp.employeeId(), stamp.stamp(), Math::max);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isCurrent(Long employeeId, int stamp) {
+        Integer current = employeeId == null ? null : stamps.get(employeeId);
+        return current != null && current == stamp;
+    }
+
+    /**
+     * The employee's current stamp, or null if it is unknown.
+     */
+    public Integer stampOf(Long employeeId) {
+        return employeeId == null ? null : stamps.get(employeeId);
+    }
+
+    public void update(Employee employee) {
+        if (enabled && employee.getId() != null) {
+            stamps.merge(employee.getId(), employee.getSecurityStamp(), Math::max);
+        }
+    }
+
+    /**
+     * Mirrors a stamp increment made by a bulk UPDATE, without reading the row back.
+     */
+    public void rotate(Long employeeId) {
+        if (employeeId != null) {
+            stamps.computeIfPresent(employeeId, (id, stamp) -> stamp + 1);
+        }
+    }
+
+    public void remove(Long employeeId) {
+        if (employeeId != null) {
+            stamps.remove(employeeId);
+        }
+    }
+
+    public int size() {
+        return stamps.size();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.payroll.security;
+
+/**
+ * An access token (jwt.expiration, 24 hours by default) and the longer-lived
+ * refresh token (jwt.refresh-expiration, 14 days) that replaces it.
+ */
+public record TokenPair(String accessToken, String refreshToken) {
+}
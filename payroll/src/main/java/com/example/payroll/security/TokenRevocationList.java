@@ -0,0 +1,248 @@
+package com.example.payroll.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Ids ({@code jti}) of tokens revoked before their natural expiry, by logout
+ * or by refresh-token rotation.
+ *
+ * A lookup is a single {@link ConcurrentHashMap} read, so checking every
+ * request in {@link JwtAuthenticationFilter} takes no lock and no query. Each
+ * id is also filed in a timing wheel under the slot of its token's expiry, and
+ * every revocation first sweeps the slots that have passed. An entry therefore
+ * lives only as long as the token it blocks.
+ *
+ * At most {@code security.jwt.revocation.max-entries} ids are held. Dropping an
+ * id would let its token back in, so once full further revocations fail with
+ * {@link RevocationCapacityExceededException} until entries expire.
+ *
+ * If {@code security.jwt.revocation-file} is set, revocations are appended to
+ * that file and replayed on startup. The file is rewritten with just the live
+ * entries at startup and whenever it has grown to twice their number.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final long slotMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    // Wheel, sweep position and journal are only touched by revocations, under the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<List<String>> wheel;
+    private long sweptSlot;
+    private Path journalPath;
+    private BufferedWriter journal;
+    private long journalLines;
+
+    @Autowired
+    public TokenRevocationList(@Value("${jwt.expiration:86400000}") long accessExpiration,
+                               @Value("${jwt.refresh-expiration:1209600000}") long refreshExpiration,
+                               @Value("${security.jwt.revocation.slot-millis:60000}") long slotMillis,
+                               @Value("${security.jwt.revocation.max-entries:1000000}") int maxEntries,
+                               @Value("${security.jwt.revocation-file:}") String journalFile) {
+        this(accessExpiration, refreshExpiration, slotMillis, maxEntries, journalFile, System::currentTimeMillis);
+    }
+
+    TokenRevocationList(long accessExpiration, long refreshExpiration, long slotMillis, int maxEntries,
+                        String journalFile, LongSupplier clock) {
+        this.slotMillis = slotMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        // One turn of the wheel covers the longest token lifetime, so no id is met before it is due
+        int slots = (int) (Math.max(accessExpiration, refreshExpiration) / slotMillis) + 2;
+        this.wheel = new ArrayList<>(Collections.nCopies(slots, null));
+
+        long now = clock.getAsLong();
+        this.sweptSlot = now / slotMillis;
+        if (StringUtils.hasText(journalFile)) {
+            this.journalPath = Path.of(journalFile);
+            replayJournal(now);
+            compactJournal();
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !revoked.containsKey(tokenId)) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    /**
+     * Revokes a token until it expires. Returns false if it was already revoked,
+     * which lets refresh-token rotation accept each refresh token only once.
+     *
+     * @throws RevocationCapacityExceededException if the list is full
+     */
+    public boolean revoke(String tokenId, Date expiresAt) {
+        long now = clock.getAsLong();
+        // Tokens without an id cannot be told apart, and expired ones are rejected anyway
+        if (tokenId == null || expiresAt == null || expiresAt.getTime() <= now) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            sweep(now);
+            if (revoked.containsKey(tokenId)) {
+                return false;
+            }
+            if (revoked.size() >= maxEntries) {
+                throw new RevocationCapacityExceededException();
+            }
+            revoked.put(tokenId, expiresAt.getTime());
+            schedule(tokenId, expiresAt.getTime());
+            append(tokenId, expiresAt.getTime());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public RevocationStats stats() {
+        lock.lock();
+        try {
+            sweep(clock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+        return new RevocationStats(revoked.size(), rejected.sum());
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        lock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Empties every slot whose time has fully passed since the last sweep
+    private void sweep(long now) {
+        long currentSlot = now / slotMillis;
+        long from = Math.max(sweptSlot, currentSlot - wheel.size());
+        for (long slot = from; slot < currentSlot; slot++) {
+            int index = (int) (slot % wheel.size());
+            List<String> ids = wheel.set(index, null);
+            if (ids == null) {
+                continue;
+            }
+            for (String id : ids) {
+                Long expiresAt = revoked.get(id);
+                if (expiresAt != null && expiresAt <= now) {
+                    revoked.remove(id);
+                } else if (expiresAt != null) {
+                    schedule(id, expiresAt);
+                }
+            }
+        }
+        sweptSlot = Math.max(sweptSlot, currentSlot);
+    }
+
+    private void schedule(String tokenId, long expiresAt) {
+        int index = (int) ((expiresAt / slotMillis) % wheel.size());
+        List<String> ids = wheel.get(index);
+        if (ids == null) {
+            ids = new ArrayList<>();
+            wheel.set(index, ids);
+        }
+        ids.add(tokenId);
+    }
+
+    private void append(String tokenId, long expiresAt) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(tokenId + " " + expiresAt);
+            journal.newLine();
+            journal.flush();
+            journalLines++;
+        } catch (IOException ex) {
+            // The revocation still holds in memory; it is only lost on restart
+            log.warn("Could not record revocation of token {}: {}", tokenId, ex.getMessage());
+        }
+        // Expired ids stay in the file until it is rewritten; doing so once it doubles keeps appends O(1) on average
+        if (journalLines > Math.max(1024, 2L * revoked.size())) {
+            try {
+                compactJournal();
+            } catch (UncheckedIOException ex) {
+                log.warn("Could not compact token revocation file {}: {}", journalPath, ex.getMessage());
+            }
+        }
+    }
+
+    // Loads the entries of an earlier run that have not expired yet
+    private void replayJournal(long now) {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                String[] fields = line.trim().split(" ");
+                if (fields.length == 2 && !fields[1].isEmpty() && fields[1].chars().allMatch(Character::isDigit)) {
+                    long expiresAt = Long.parseLong(fields[1]);
+                    if (expiresAt > now && revoked.putIfAbsent(fields[0], expiresAt) == null) {
+                        schedule(fields[0], expiresAt);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read token revocation file " + journalPath, ex);
+        }
+    }
+
+    // Rewrites the file with just the live entries and reopens it for appending
+    private void compactJournal() {
+        try {
+            Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+            List<String> lines = revoked.entrySet().stream().map(e -> e.getKey() + " " + e.getValue()).toList();
+            Files.write(compacted, lines, StandardCharsets.UTF_8);
+            Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            if (journal != null) {
+                journal.close();
+            }
+            journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            journalLines = lines.size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write token revocation file " + journalPath, ex);
+        }
+    }
+}
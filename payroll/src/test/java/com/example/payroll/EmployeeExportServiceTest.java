@@ -0,0 +1,130 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports must stream: rows reach the output while the table is still being
+ * read, and each employee leaves the persistence context once written.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(EmployeeExportService.class)
+class EmployeeExportServiceTest {
+
+    private static final int ROWS = 600;
+
+    @Autowired
+    private EmployeeExportService exportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Role tester = entityManager.persist(new Role("tester"));
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(new Employee("Export Employee " + i, "export" + i, "secret", tester));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ndjsonStreamsOneLinePerEmployeeAndDetachesEachRow() throws IOException {
+        ObservingStream out = new ObservingStream();
+
+        exportService.writeNdjson(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body.lines()).hasSize(ROWS);
+        assertThat(body).doesNotContain("secret");
+        assertThat(out.flushesBeforeLastRow).isGreaterThan(0);
+        // The role and at most the row being written
+        assertThat(out.maxManagedEntities).isLessThanOrEqualTo(2);
+        assertThat(managedEntities()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void csvStreamsOneLinePerEmployeeAndDetachesEachRow() throws IOException {
+        ObservingStream out = new ObservingStream();
+
+        exportService.writeCsv(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body.lines()).hasSize(ROWS + 1);
+        assertThat(body.lines().findFirst()).hasValue("id,name,username,roleId,roleName");
+        assertThat(out.flushesBeforeLastRow).isGreaterThan(0);
+        assertThat(out.maxManagedEntities).isLessThanOrEqualTo(2);
+        assertThat(managedEntities()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void csvNeutralizesFormulasAndQuotesSeparators() throws IOException {
+        Role tester = entityManager.find(Role.class, entityManager.getEntityManager()
+            .createQuery("select r.id from Role r", Long.class).getSingleResult());
+        entityManager.persist(new Employee("=HYPERLINK(\"http://evil\")", "formula1", "secret", tester));
+        entityManager.persist(new Employee("+1", "formula2", "secret", tester));
+        entityManager.persist(new Employee("-2,3", "formula3", "secret", tester));
+        entityManager.persist(new Employee("Plain, Name", "@formula4", "secret", tester));
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.writeCsv(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).contains(",\"'=HYPERLINK(\"\"http://evil\"\")\",formula1,");
+        assertThat(body).contains(",'+1,formula2,");
+        assertThat(body).contains(",\"'-2,3\",formula3,");
+        assertThat(body).contains(",\"Plain, Name\",'@formula4,");
+    }
+
+    private int managedEntities() {
+        return entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    // Records how full the persistence context is whenever output arrives
+    private class ObservingStream extends ByteArrayOutputStream {
+
+        private int maxManagedEntities;
+        private int flushesBeforeLastRow;
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            super.write(bytes, offset, length);
+            observe();
+        }
+
+        @Override
+        public void write(int b) {
+            super.write(b);
+            observe();
+        }
+
+        @Override
+        public void flush() {
+            if (!toString(StandardCharsets.UTF_8).contains("export" + (ROWS - 1))) {
+                flushesBeforeLastRow++;
+            }
+        }
+
+        private void observe() {
+            maxManagedEntities = Math.max(maxManagedEntities, managedEntities());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.payroll;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmployeeImportCsvTest {
+
+    @Test
+    void numbersRowsByTheirLineInTheInput() {
+        EmployeeImportService.CsvRows parsed = EmployeeImportService.parseCsv(
+            "\nname,username,password,role\nA,a,pw,tester\n\n  \nB,b,pw,2\n");
+
+        assertThat(parsed.rows()).extracting(EmployeeImportRow::username).containsExactly("a", "b");
+        assertThat(parsed.lines()).containsExactly(2, 5);
+        assertThat(parsed.rows().get(1).roleId()).isEqualTo(2L);
+    }
+
+    @Test
+    void leavesAnIdTooLongForALongAsAnUnknownRoleName() {
+        EmployeeImportService.CsvRows parsed = EmployeeImportService.parseCsv(
+            "name,username,password,role\nA,a,pw,99999999999999999999\n");
+
+        EmployeeImportRow row = parsed.rows().get(0);
+        assertThat(row.roleId()).isNull();
+        assertThat(row.role()).isEqualTo("99999999999999999999");
+    }
+
+    @Test
+    void parsesAnEmptyOrBlankBodyAsNoRows() {
+        assertThat(EmployeeImportService.parseCsv("").rows()).isEmpty();
+        assertThat(EmployeeImportService.parseCsv("\n \n").rows()).isEmpty();
+    }
+}
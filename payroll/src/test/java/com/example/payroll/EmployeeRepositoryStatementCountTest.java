@@ -0,0 +1,151 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import com.example.payroll.role.RoleAssignment;
+import com.example.payroll.role.RoleAssignmentService;
+import com.example.payroll.role.RoleRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Listing employees must cost the same number of statements however many
+ * employees and roles are on the page, and partial updates and role moves
+ * must not cost a statement per employee.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({EmployeePatchService.class, RoleAssignmentService.class, RoleRegistry.class})
+class EmployeeRepositoryStatementCountTest {
+
+    @Autowired
+    private EmployeeRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeePatchService patchService;
+
+    @Autowired
+    private RoleAssignmentService roleAssignmentService;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pageListingIsOneStatementRegardlessOfSize() {
+        seed(5);
+        long small = statementsFor(() -> repository.findAll(PageRequest.of(0, 100, Sort.by("id"))).getContent());
+
+        seed(45);
+        long large = statementsFor(() -> repository.findAll(PageRequest.of(0, 100, Sort.by("id"))).getContent());
+
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void keysetListingIsOneStatementRegardlessOfSize() {
+        seed(50);
+
+        long small = statementsFor(() -> repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(5)));
+        long large = statementsFor(() -> repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50)));
+
+        assertThat(small).isEqualTo(1);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void multiGetFetchesEmployeesAndRolesInOneStatement() {
+        seed(50);
+        List<Long> ids = repository.findAll().stream().map(Employee::getId).toList();
+
+        long statements = statementsFor(() -> repository.findByIdIn(ids).forEach(e -> e.getRole().getName()));
+
+        assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void patchIsAReadAndOneUpdateAndChecksTheVersion() {
+        seed(1);
+        Employee employee = repository.findAll().get(0);
+        entityManager.clear();
+
+        long statements = statementsFor(() -> {
+            patchService.apply(employee.getId(), "Renamed", null, null, List.of(employee.getVersion()));
+            entityManager.flush();
+        });
+        entityManager.clear();
+
+        assertThatThrownBy(() -> patchService.apply(employee.getId(), "Stale", null, null,
+            List.of(employee.getVersion()))).isInstanceOf(PreconditionFailedException.class);
+        entityManager.clear();
+
+        Employee patched = repository.findById(employee.getId()).orElseThrow();
+        assertThat(statements).isEqualTo(2);
+        assertThat(patched.getName()).isEqualTo("Renamed");
+        assertThat(patched.getVersion()).isEqualTo(employee.getVersion() + 1);
+        assertThat(patched.getUsername()).isEqualTo(employee.getUsername());
+    }
+
+    @Test
+    void roleReassignmentIsSetBased() {
+        seed(40);
+        roleRegistry.refresh();
+        Role from = roleRegistry.findByName("developer").orElseThrow();
+        Role to = roleRegistry.findByName("tester").orElseThrow();
+        long members = repository.findAll().stream().filter(e -> from.getId().equals(e.getRoleId())).count();
+
+        RoleAssignment[] result = new RoleAssignment[1];
+        long statements = statementsFor(() -> result[0] = roleAssignmentService.reassignAll(from.getId(), to.getId()));
+        entityManager.clear();
+
+        // Lock the role, lock and list its employees, one UPDATE
+        assertThat(statements).isEqualTo(3);
+        assertThat(result[0].moved()).isEqualTo(members);
+        assertThat(repository.findAll()).noneMatch(e -> from.getId().equals(e.getRoleId()));
+    }
+
+    private void seed(int count) {
+        List<Role> roles = List.of(new Role("developer"), new Role("tester"), new Role("manager"), new Role("admin"));
+        roles.forEach(entityManager::persist);
+        long offset = repository.count();
+        for (int i = 0; i < count; i++) {
+            long n = offset + i;
+            entityManager.persist(new Employee("Employee " + n, "user" + n, "secret", roles.get(i % roles.size())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statementsFor(Runnable listing) {
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class EmployeeSpecificationsTest {
+
+    @Autowired
+    private EmployeeRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Role developer;
+    private Role tester;
+
+    @BeforeEach
+    void setUp() {
+        developer = entityManager.persist(new Role("developer"));
+        tester = entityManager.persist(new Role("tester"));
+        entityManager.persist(new Employee("Bilbo Baggins", "bilbo", "secret", developer));
+        entityManager.persist(new Employee("Frodo Baggins", "frodo", "secret", tester));
+        entityManager.persist(new Employee("Samwise Gamgee", "sam_gamgee", "secret", tester));
+        entityManager.persist(new Employee("Percent 100% Hobbit", "samXgamgee", "secret", developer));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void prefixMatchesOnlyTheStartOfTheValue() {
+        assertThat(usernames(EmployeeSpecifications.nameMatches("Bilbo", true))).containsExactly("bilbo");
+        assertThat(usernames(EmployeeSpecifications.nameMatches("Baggins", true))).isEmpty();
+    }
+
+    @Test
+    void containsMatchesAnywhereInTheValue() {
+        assertThat(usernames(EmployeeSpecifications.nameMatches("Baggins", false)))
+            .containsExactly("bilbo", "frodo");
+    }
+
+    @Test
+    void wildcardCharactersInTheSearchTextAreLiteral() {
+        assertThat(usernames(EmployeeSpecifications.usernameMatches("sam_", true))).containsExactly("sam_gamgee");
+        assertThat(usernames(EmployeeSpecifications.nameMatches("100%", false))).containsExactly("samXgamgee");
+        assertThat(usernames(EmployeeSpecifications.nameMatches("%", true))).isEmpty();
+    }
+
+    @Test
+    void roleAndTextFiltersCombine() {
+        Specification<Employee> testers = EmployeeSpecifications.hasRole(tester.getId());
+
+        assertThat(usernames(testers)).containsExactly("frodo", "sam_gamgee");
+        assertThat(usernames(testers.and(EmployeeSpecifications.nameMatches("Baggins", false))))
+            .containsExactly("frodo");
+        assertThat(usernames(EmployeeSpecifications.hasRole(developer.getId())
+            .and(EmployeeSpecifications.nameMatches("Frodo", true)))).isEmpty();
+    }
+
+    private List<String> usernames(Specification<Employee> filter) {
+        return repository.findAll(filter, Sort.by("username")).stream().map(Employee::getUsername).toList();
+    }
+}
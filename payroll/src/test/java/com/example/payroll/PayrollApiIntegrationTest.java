@@ -0,0 +1,362 @@
+package com.example.payroll;
+
+import com.example.payroll.role.Role;
+import com.example.payroll.role.RoleRegistry;
+import com.example.payroll.security.JwtTokenProvider;
+import com.example.payroll.security.TokenPair;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application on a real port against H2, with the users seeded by
+ * {@link LoadDatabase}: admin (admin), bilbo (developer) and frodo (tester).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("h2")
+class PayrollApiIntegrationTest {
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private JwtTokenProvider tokens;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void nonAdminCannotDeleteOrEmptyARole() throws Exception {
+        Role developer = roleRegistry.findByName("developer").orElseThrow();
+        Role admin = roleRegistry.findByName("admin").orElseThrow();
+        String bilbo = tokens.generateToken("bilbo");
+
+        HttpResponse<String> delete = send(request("/roles/" + developer.getId() + "?reassignTo=" + admin.getId(), bilbo)
+            .DELETE());
+        HttpResponse<String> reassign = send(request("/roles/" + developer.getId() + "/reassign", bilbo)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"toRoleId\":" + admin.getId() + "}")));
+
+        assertThat(delete.statusCode()).isEqualTo(403);
+        assertThat(reassign.statusCode()).isEqualTo(403);
+        assertThat(roleRegistry.findById(developer.getId())).isPresent();
+        assertThat(employeeRepository.findByUsername("bilbo").orElseThrow().getRoleId()).isEqualTo(developer.getId());
+    }
+
+    @Test
+    void largeListingsAreGzippedAndStillConditional() throws Exception {
+        Role tester = roleRegistry.findByName("tester").orElseThrow();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            employees.add(new Employee("Gzip Listing Employee " + i, "gzip" + i, "unused", tester));
+        }
+        employeeRepository.saveAll(employees);
+        String admin = tokens.generateToken("admin");
+
+        for (String accept : List.of("application/json", CompactEmployeePage.MEDIA_TYPE)) {
+            HttpResponse<byte[]> response = http.send(request("/employees?size=100", admin)
+                    .header("Accept", accept)
+                    .header("Accept-Encoding", "gzip")
+                    .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+            byte[] body = new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes();
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+            assertThat(body.length).isGreaterThan(2048);
+
+            String etag = response.headers().firstValue("ETag").orElseThrow();
+            assertThat(etag).startsWith("W/");
+            HttpResponse<String> revalidated = send(request("/employees?size=100", admin)
+                .header("Accept", accept)
+                .header("If-None-Match", etag));
+            assertThat(revalidated.statusCode()).isEqualTo(304);
+        }
+    }
+
+    @Test
+    void prometheusScrapeIsOnlyOpenOnTheManagementPort() throws Exception {
+        HttpResponse<String> publicScrape = send(request("/actuator/prometheus", null));
+        HttpResponse<String> internalScrape = http.send(HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + managementPort + "/actuator/prometheus")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> internalHealth = http.send(HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + managementPort + "/actuator/health")).build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(publicScrape.statusCode()).isNotEqualTo(200);
+        assertThat(publicScrape.body()).doesNotContain("payroll_");
+        assertThat(internalScrape.statusCode()).isEqualTo(200);
+        assertThat(internalHealth.statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void aRefreshTokenIsAcceptedOnceEvenWhenRacedAgainstItself() throws Exception {
+        Employee frodo = employeeRepository.findByUsername("frodo").orElseThrow();
+        String refreshToken = tokens.generateTokenPair("frodo", frodo.getSecurityStamp()).refreshToken();
+        List<CompletableFuture<HttpResponse<String>>> refreshes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            refreshes.add(http.sendAsync(request("/auth/refresh", null)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                    .build(),
+                HttpResponse.BodyHandlers.ofString()));
+        }
+
+        List<Integer> statuses = new ArrayList<>();
+        for (CompletableFuture<HttpResponse<String>> refresh : refreshes) {
+            statuses.add(refresh.get().statusCode());
+        }
+
+        assertThat(statuses).containsOnlyOnce(200);
+        assertThat(statuses).filteredOn(status -> status != 200).containsOnly(401);
+    }
+
+    @Test
+    void aPasswordChangeRetiresOutstandingRefreshTokens() throws Exception {
+        Role tester = roleRegistry.findByName("tester").orElseThrow();
+        Employee employee = employeeRepository.save(new Employee("Refresh Stamp", "refresh-stamp", "unused", tester));
+        TokenPair before = tokens.generateTokenPair("refresh-stamp", employee.getSecurityStamp());
+
+        HttpResponse<String> refreshed = send(refresh(before.refreshToken()));
+        HttpResponse<String> patch = send(request("/employees/" + employee.getId(), tokens.generateToken("admin"))
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"password\":\"changed-password\"}")));
+        Matcher rotated = Pattern.compile("\"refreshToken\":\"([^\"]+)\"").matcher(refreshed.body());
+        assertThat(rotated.find()).isTrue();
+        HttpResponse<String> afterChange = send(refresh(rotated.group(1)));
+
+        assertThat(refreshed.statusCode()).isEqualTo(200);
+        assertThat(tokens.parseToken(rotated.group(1)).orElseThrow().securityStamp())
+            .isEqualTo(employee.getSecurityStamp());
+        assertThat(patch.statusCode()).isEqualTo(204);
+        assertThat(afterChange.statusCode()).isEqualTo(401);
+    }
+
+    @Test
+    void patchRefreshesOnlyThePatchedEmployeeInTheSecondLevelCache() throws Exception {
+        Role tester = roleRegistry.findByName("tester").orElseThrow();
+        List<Employee> saved = employeeRepository.saveAll(List.of(
+            new Employee("Patch Target", "patch-target", "unused", tester),
+            new Employee("Patch Bystander", "patch-bystander", "unused", tester)));
+        Long target = saved.get(0).getId();
+        Long bystander = saved.get(1).getId();
+        employeeRepository.findById(target);
+        employeeRepository.findById(bystander);
+        Cache cache = entityManagerFactory.getCache();
+        assertThat(cache.contains(Employee.class, bystander)).isTrue();
+
+        String admin = tokens.generateToken("admin");
+        HttpResponse<String> patch = send(request("/employees/" + target, admin)
+            .header("Content-Type", "application/json")
+            .header("Prefer", "return=representation")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":\"Patched Target\"}")));
+
+        assertThat(patch.statusCode()).isEqualTo(200);
+        assertThat(patch.body()).contains("Patched Target");
+        assertThat(cache.contains(Employee.class, bystander)).isTrue();
+        assertThat(employeeRepository.findById(target).orElseThrow().getName()).isEqualTo("Patched Target");
+    }
+
+    @Test
+    void patchingTheRoleReturnsTheRepresentationAndRotatesOnlyOnAChange() throws Exception {
+        Role tester = roleRegistry.findByName("tester").orElseThrow();
+        Role developer = roleRegistry.findByName("developer").orElseThrow();
+        Employee saved = employeeRepository.save(new Employee("Role Patch Target", "role-patch", "unused", tester));
+        int initialStamp = saved.getSecurityStamp();
+        String admin = tokens.generateToken("admin");
+
+        HttpResponse<String> moved = send(request("/employees/" + saved.getId(), admin)
+            .header("Content-Type", "application/json")
+            .header("Prefer", "return=representation")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"roleId\":" + developer.getId() + "}")));
+        int movedStamp = employeeRepository.findById(saved.getId()).orElseThrow().getSecurityStamp();
+
+        HttpResponse<String> unchanged = send(request("/employees/" + saved.getId(), admin)
+            .header("Content-Type", "application/json")
+            .header("Prefer", "return=representation")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"roleId\":" + developer.getId() + "}")));
+        Employee after = employeeRepository.findById(saved.getId()).orElseThrow();
+
+        assertThat(moved.statusCode()).isEqualTo(200);
+        assertThat(moved.body()).contains("\"developer\"");
+        assertThat(movedStamp).isEqualTo(initialStamp + 1);
+        assertThat(unchanged.statusCode()).isEqualTo(200);
+        assertThat(after.getRoleId()).isEqualTo(developer.getId());
+        assertThat(after.getSecurityStamp()).isEqualTo(movedStamp);
+    }
+
+    @Test
+    void patchRejectsAnEmptyPasswordAndMergePatchBodies() throws Exception {
+        Long bilbo = employeeRepository.findByUsername("bilbo").orElseThrow().getId();
+        String token = tokens.generateToken("bilbo");
+
+        HttpResponse<String> emptyPassword = send(request("/employees/" + bilbo, token)
+            .header("Content-Type", "application/json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"password\":\"\"}")));
+        HttpResponse<String> mergePatch = send(request("/employees/" + bilbo, token)
+            .header("Content-Type", "application/merge-patch+json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"name\":null}")));
+
+        assertThat(emptyPassword.statusCode()).isEqualTo(400);
+        assertThat(mergePatch.statusCode()).isEqualTo(415);
+    }
+
+    @Test
+    void cborRepresentationsHaveTheirOwnETags() throws Exception {
+        Employee employee = employeeRepository.findByUsername("frodo").orElseThrow();
+        Long frodo = employee.getId();
+        String admin = tokens.generateToken("admin");
+
+        HttpResponse<String> json = send(request("/employees/" + frodo, admin).header("Accept", "application/json"));
+        HttpResponse<byte[]> cbor = http.send(request("/employees/" + frodo, admin)
+                .header("Accept", "application/cbor").build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+        String jsonTag = json.headers().firstValue("ETag").orElseThrow();
+        String cborTag = cbor.headers().firstValue("ETag").orElseThrow();
+
+        assertThat(cbor.statusCode()).isEqualTo(200);
+        assertThat(cbor.headers().firstValue("Content-Type").orElseThrow()).startsWith("application/cbor");
+        assertThat(cborTag).isNotEqualTo(jsonTag);
+        assertThat(send(request("/employees/" + frodo, admin)
+            .header("Accept", "application/cbor")
+            .header("If-None-Match", jsonTag)).statusCode()).isEqualTo(200);
+        assertThat(send(request("/employees/" + frodo, admin)
+            .header("Accept", "application/cbor")
+            .header("If-None-Match", cborTag)).statusCode()).isEqualTo(304);
+
+        HttpResponse<String> listing = send(request("/employees", admin).header("Accept", "application/json"));
+        HttpResponse<String> cborListing = send(request("/employees", admin).header("Accept", "application/cbor"));
+        assertThat(cborListing.headers().firstValue("ETag"))
+            .isNotEqualTo(listing.headers().firstValue("ETag"));
+
+        // Either tag names the current version for a conditional write
+        HttpResponse<String> put = send(request("/employees/" + frodo, admin)
+            .header("Content-Type", "application/json")
+            .header("If-Match", cborTag)
+            .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"" + employee.getName() + "\"}")));
+        assertThat(put.statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void searchTreatsAnUnknownRoleAsNoMatchesAndOnlySortsByWhitelistedColumns() throws Exception {
+        String admin = tokens.generateToken("admin");
+
+        HttpResponse<String> unknownName = send(request("/employees/search?role=unknown", admin));
+        HttpResponse<String> unknownId = send(request("/employees/search?role=99999999999999999999", admin));
+        HttpResponse<String> known = send(request("/employees/search?role=tester&q=frodo", admin));
+        HttpResponse<String> byPassword = send(request("/employees/search?sort=password", admin));
+        HttpResponse<String> byPasswordUnknownRole = send(request("/employees/search?role=unknown&sort=password", admin));
+        HttpResponse<String> byNameDescending = send(request("/employees/search?q=Baggins&match=contains&sort=name,desc",
+            admin));
+
+        assertThat(unknownName.statusCode()).isEqualTo(200);
+        assertThat(unknownName.body()).contains("\"totalElements\":0");
+        assertThat(unknownId.statusCode()).isEqualTo(200);
+        assertThat(unknownId.body()).contains("\"totalElements\":0");
+        assertThat(known.statusCode()).isEqualTo(200);
+        assertThat(known.body()).contains("\"username\":\"frodo\"");
+        assertThat(byPassword.statusCode()).isEqualTo(400);
+        assertThat(byPasswordUnknownRole.statusCode()).isEqualTo(400);
+        assertThat(byNameDescending.statusCode()).isEqualTo(200);
+        assertThat(byNameDescending.body().indexOf("Frodo Baggins"))
+            .isLessThan(byNameDescending.body().indexOf("Bilbo Baggins"));
+    }
+
+    @Test
+    void csvImportReportsABadRoleIdOnItsOwnLine() throws Exception {
+        String csv = "name,username,password,role\n"
+            + "Csv Good,csv-good,secret,tester\n"
+            + "\n"
+            + "Csv Bad,csv-bad,secret,99999999999999999999\n";
+
+        HttpResponse<String> response = send(request("/employees/bulk", tokens.generateToken("admin"))
+            .header("Content-Type", "text/csv")
+            .POST(HttpRequest.BodyPublishers.ofString(csv)));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"imported\":1");
+        assertThat(response.body()).contains("{\"row\":3,\"username\":\"csv-bad\",\"message\":\"Role not found\"}");
+        assertThat(employeeRepository.findByUsername("csv-good")).isPresent();
+    }
+
+    @Test
+    void aWriteInvalidatesTheCachedEntityAndQuery() {
+        Role tester = roleRegistry.findByName("tester").orElseThrow();
+        Employee employee = employeeRepository.save(new Employee("Cached Employee", "cached", "unused", tester));
+        Cache cache = entityManagerFactory.getCache();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        employeeRepository.findById(employee.getId());
+        EmployeeDirectoryVersion before = employeeRepository.directoryVersion();
+        statistics.clear();
+        assertThat(employeeRepository.directoryVersion()).isEqualTo(before);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(cache.contains(Employee.class, employee.getId())).isTrue();
+
+        Employee loaded = employeeRepository.findById(employee.getId()).orElseThrow();
+        loaded.setName("Renamed Cached Employee");
+        employeeRepository.save(loaded);
+        statistics.clear();
+
+        assertThat(employeeRepository.directoryVersion()).isNotEqualTo(before);
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(employeeRepository.findById(employee.getId()).orElseThrow().getName())
+            .isEqualTo("Renamed Cached Employee");
+
+        // The credentials lookup never goes to the query cache
+        statistics.clear();
+        employeeRepository.findCredentialsByUsername("cached");
+        assertThat(statistics.getQueryCachePutCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    private HttpRequest.Builder refresh(String refreshToken) {
+        return request("/auth/refresh", null)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
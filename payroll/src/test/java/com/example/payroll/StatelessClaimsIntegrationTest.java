@@ -0,0 +1,73 @@
+package com.example.payroll;
+
+import com.example.payroll.security.JwtTokenProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * In stateless-claims mode an authenticated request is answered from the token
+ * and the in-memory stamp table, without touching the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "security.jwt.stateless-claims=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("h2")
+class StatelessClaimsIntegrationTest {
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenProvider tokens;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void aClaimsRequestRunsNoStatements() throws Exception {
+        HttpResponse<String> login = http.send(request("/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"frodo\",\"password\":\"password123\"}"))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertThat(login.statusCode()).isEqualTo(200);
+        Matcher token = ACCESS_TOKEN.matcher(login.body());
+        assertThat(token.find()).isTrue();
+        assertThat(tokens.parseToken(token.group(1)).orElseThrow().employee()).isNotNull();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        HttpResponse<String> currentUser = http.send(request("/auth/current-user")
+                .header("Authorization", "Bearer " + token.group(1))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        assertThat(currentUser.statusCode()).isEqualTo(200);
+        assertThat(currentUser.body()).contains("frodo");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+}
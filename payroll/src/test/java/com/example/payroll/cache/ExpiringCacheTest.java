@@ -0,0 +1,159 @@
+package com.example.payroll.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTest {
+
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    void servesEntriesUntilTheirExpiry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("live", "a", now + 60_000);
+        cache.put("expired", "b", now - 1);
+
+        assertThat(cache.get("live")).isEqualTo("a");
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("missing")).isNull();
+        assertThat(cache.stats()).isEqualTo(new CacheStats(1, 2, 1, 1));
+    }
+
+    @Test
+    void makesRoomFromExpiredEntriesFirst() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(3);
+        cache.put("expired-1", "a", now - 1);
+        cache.put("live", "b", now + 60_000);
+        cache.put("expired-2", "c", now - 1);
+
+        cache.put("new", "d", now + 60_000);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("live")).isEqualTo("b");
+        assertThat(cache.get("new")).isEqualTo("d");
+    }
+
+    @Test
+    void dropsLiveEntriesWhenNothingHasExpired() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(3);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key-" + i, "value", now + 60_000);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("key-9")).isEqualTo("value");
+        assertThat(cache.stats().evictions()).isEqualTo(7);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() throws InterruptedException {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(3);
+        cache.put("a", "1", now + 60_000);
+        Thread.sleep(2);
+        cache.put("b", "1", now + 60_000);
+        Thread.sleep(2);
+        cache.put("c", "1", now + 60_000);
+        Thread.sleep(2);
+        cache.get("a");
+
+        cache.put("d", "1", now + 60_000);
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("c")).isEqualTo("1");
+        assertThat(cache.get("d")).isEqualTo("1");
+    }
+
+    @Test
+    void evictsATenthOfTheCapacityAtOnce() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(20);
+        for (int i = 0; i < 20; i++) {
+            cache.put("key-" + i, "value", now + 60_000);
+        }
+
+        cache.put("next-1", "value", now + 60_000);
+        assertThat(cache.size()).isEqualTo(19);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+
+        cache.put("next-2", "value", now + 60_000);
+        assertThat(cache.size()).isEqualTo(20);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void sweepsExpiredEntriesOnceTheIntervalHasPassed() {
+        ExpiringCache<String, String> lazy = new ExpiringCache<>(10);
+        ExpiringCache<String, String> eager = new ExpiringCache<>(10, 0);
+        for (ExpiringCache<String, String> cache : List.of(lazy, eager)) {
+            cache.put("expired", "a", now - 1);
+            cache.put("live", "b", now + 60_000);
+        }
+
+        assertThat(lazy.size()).isEqualTo(2);
+        assertThat(eager.size()).isEqualTo(1);
+    }
+
+    @Test
+    void neverHoldsMoreThanMaxSizeUnderConcurrentPuts() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(100);
+        AtomicInteger largest = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        cache.put(thread + "-" + i, "value", now + 60_000);
+                        largest.accumulateAndGet(cache.size(), Math::max);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(largest.get()).isLessThanOrEqualTo(100);
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void replacingAKeyInAFullCacheEvictsNothing() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(2);
+        cache.put("a", "1", now + 60_000);
+        cache.put("b", "1", now + 60_000);
+
+        cache.put("a", "2", now + 60_000);
+
+        assertThat(cache.get("a")).isEqualTo("2");
+        assertThat(cache.get("b")).isEqualTo("1");
+    }
+
+    @Test
+    void invalidatesByKeyPredicateOrAll() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(10);
+        cache.put("a", 1, now + 60_000);
+        cache.put("b", 2, now + 60_000);
+        cache.put("c", 3, now + 60_000);
+
+        cache.invalidate("a");
+        cache.invalidateIf((key, value) -> value % 2 == 0);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.payroll.db;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdmissionDataSourceTest {
+
+    private final DatabaseAdmission admission = new DatabaseAdmission(true, 1, 50);
+    private final AdmissionDataSource dataSource = new AdmissionDataSource(h2(), admission);
+
+    @Test
+    void holdsThePermitUntilTheConnectionIsClosed() throws Exception {
+        Connection held = dataSource.getConnection();
+
+        assertThatThrownBy(() -> CompletableFuture.supplyAsync(this::checkOutAndClose).get())
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(DatabaseBusyException.class);
+
+        held.close();
+        assertThat(CompletableFuture.supplyAsync(this::checkOutAndClose).get()).isTrue();
+        assertThat(admission.stats().rejected()).isEqualTo(1);
+        assertThat(admission.stats().available()).isEqualTo(1);
+    }
+
+    @Test
+    void aThreadHoldingAConnectionGetsMoreWithoutASecondPermit() throws Exception {
+        Connection outer = dataSource.getConnection();
+        Connection inner = dataSource.getConnection();
+
+        outer.close();
+        assertThat(admission.stats().available()).isZero();
+        inner.close();
+        inner.close();
+
+        assertThat(admission.stats().available()).isEqualTo(1);
+        assertThat(admission.stats().admitted()).isEqualTo(1);
+    }
+
+    @Test
+    void givesThePermitBackWhenCheckoutFails() throws Exception {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        AdmissionDataSource failing = new AdmissionDataSource(broken, admission);
+
+        assertThatThrownBy(failing::getConnection).isInstanceOf(SQLException.class);
+
+        assertThat(admission.stats().available()).isEqualTo(1);
+    }
+
+    private boolean checkOutAndClose() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(1);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
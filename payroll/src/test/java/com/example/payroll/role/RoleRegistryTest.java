@@ -0,0 +1,50 @@
+package com.example.payroll.role;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoleRegistryTest {
+
+    @Test
+    void aSlowOlderRefreshCannotReplaceANewerSnapshot() throws Exception {
+        RoleRepository repository = mock(RoleRepository.class);
+        RoleRegistry registry = new RoleRegistry(repository);
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch firstReadStarted = new CountDownLatch(1);
+        CountDownLatch secondReadStarted = new CountDownLatch(1);
+        when(repository.findAll()).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                firstReadStarted.countDown();
+                // Without serialization the second refresh reads and installs its snapshot meanwhile
+                secondReadStarted.await(500, TimeUnit.MILLISECONDS);
+                return List.of(role(1L, "developer"));
+            }
+            secondReadStarted.countDown();
+            return List.of(role(1L, "developer"), role(2L, "tester"));
+        });
+
+        CompletableFuture<Void> older = CompletableFuture.runAsync(registry::refresh);
+        assertThat(firstReadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> newer = CompletableFuture.runAsync(registry::refresh);
+        older.get(5, TimeUnit.SECONDS);
+        newer.get(5, TimeUnit.SECONDS);
+
+        assertThat(registry.findByName("tester")).isPresent();
+        assertThat(registry.findAll()).hasSize(2);
+    }
+
+    private static Role role(Long id, String name) {
+        Role role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.payroll.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryLoginAttemptStoreTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void countsAttemptsWithinTheWindowOnly() {
+        InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(WINDOW, 100);
+
+        store.increment("user:bilbo", 0);
+        store.increment("user:bilbo", 30_000);
+
+        assertThat(store.count("user:bilbo", 30_000)).isEqualTo(2);
+        assertThat(store.count("user:bilbo", 70_000)).isEqualTo(1);
+        assertThat(store.count("user:bilbo", 100_000)).isZero();
+        assertThat(store.increment("user:bilbo", 100_000)).isEqualTo(1);
+    }
+
+    @Test
+    void resetForgetsTheKey() {
+        InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(WINDOW, 100);
+        store.increment("user:bilbo", 0);
+
+        store.reset("user:bilbo");
+
+        assertThat(store.count("user:bilbo", 0)).isZero();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void neverHoldsMoreThanMaxKeysUnderAKeyFlood() {
+        InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(WINDOW, 100);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.increment("ip:10.0." + (i / 256) + "." + (i % 256), 1_000);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void sweepsIdleKeysBeforeDroppingLiveOnes() {
+        InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(WINDOW, 100);
+        for (int i = 0; i < 99; i++) {
+            store.increment("ip:idle-" + i, 0);
+        }
+        store.increment("user:bilbo", 50_000);
+
+        store.increment("ip:new", 70_000);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.count("user:bilbo", 70_000)).isEqualTo(1);
+        assertThat(store.count("ip:new", 70_000)).isEqualTo(1);
+    }
+}
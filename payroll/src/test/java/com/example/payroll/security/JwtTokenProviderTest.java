@@ -0,0 +1,82 @@
+package com.example.payroll.security;
+
+import com.example.payroll.EmployeeSummary;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "aTestSigningKeyThatIsAtLeast256BitsLongForHS256";
+
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100);
+
+    @Test
+    void parsesAValidTokenOnceAndThenServesItFromTheCache() {
+        String token = provider.generateToken("bilbo");
+
+        ParsedToken first = provider.parseToken(token).orElseThrow();
+        ParsedToken second = provider.parseToken(token).orElseThrow();
+
+        assertThat(first.username()).isEqualTo("bilbo");
+        assertThat(first.refresh()).isFalse();
+        assertThat(first.employee()).isNull();
+        assertThat(second).isSameAs(first);
+        assertThat(provider.verifiedTokenStats().hits()).isEqualTo(1);
+        assertThat(provider.verifiedTokenStats().size()).isEqualTo(1);
+    }
+
+    @Test
+    void carriesStatelessClaimsAndTheRefreshFlag() {
+        EmployeeSummary frodo = new EmployeeSummary(7L, "frodo", "Frodo Baggins", 3L, "tester");
+        TokenPair pair = provider.generateTokenPair(frodo, 4);
+
+        ParsedToken access = provider.parseToken(pair.accessToken()).orElseThrow();
+        ParsedToken refresh = provider.parseToken(pair.refreshToken()).orElseThrow();
+
+        assertThat(access.refresh()).isFalse();
+        assertThat(refresh.refresh()).isTrue();
+        assertThat(access.employee().employee()).isEqualTo(frodo);
+        assertThat(access.employee().securityStamp()).isEqualTo(4);
+        assertThat(access.tokenId()).isNotEqualTo(refresh.tokenId());
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        JwtTokenProvider expiring = new JwtTokenProvider(SECRET, -60_000, 120_000, 100);
+
+        assertThat(expiring.parseToken(expiring.generateToken("bilbo"))).isEmpty();
+        assertThat(expiring.verifiedTokenStats().size()).isZero();
+    }
+
+    @Test
+    void stopsServingACachedTokenOnceItExpires() throws InterruptedException {
+        JwtTokenProvider shortLived = new JwtTokenProvider(SECRET, 1_000, 120_000, 100);
+        String token = shortLived.generateToken("bilbo");
+        ParsedToken parsed = shortLived.parseToken(token).orElseThrow();
+
+        while (System.currentTimeMillis() <= parsed.expiration().getTime()) {
+            Thread.sleep(50);
+        }
+
+        assertThat(shortLived.parseToken(token)).isEmpty();
+    }
+
+    @Test
+    void rejectsForgedAndTamperedTokensEvenWhenTheGenuineOneIsCached() {
+        String genuine = provider.generateToken("bilbo");
+        provider.parseToken(genuine).orElseThrow();
+
+        JwtTokenProvider forger = new JwtTokenProvider("anotherSigningKeyThatIsAtLeast256BitsLongForHS256", 60_000,
+            120_000, 100);
+        String forged = forger.generateToken("admin");
+        String[] parts = genuine.split("\\.");
+        String tampered = parts[0] + "." + forger.generateToken("admin").split("\\.")[1] + "." + parts[2];
+
+        assertThat(provider.parseToken(forged)).isEmpty();
+        assertThat(provider.parseToken(tampered)).isEmpty();
+        assertThat(provider.parseToken("not-a-token")).isEmpty();
+        assertThat(provider.parseToken("")).isEmpty();
+        assertThat(provider.verifiedTokenStats().size()).isEqualTo(1);
+    }
+}
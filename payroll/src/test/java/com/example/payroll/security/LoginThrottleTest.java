@@ -0,0 +1,91 @@
+package com.example.payroll.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+    private final LoginThrottle throttle = new LoginThrottle(
+        new StaticListableBeanFactory(Map.of("store", new InMemoryLoginAttemptStore(60_000, 1000)))
+            .getBeanProvider(LoginAttemptStore.class),
+        60_000, 5, 50, 10, 1000);
+
+    @Test
+    void rejectsAUsernameOnceItsAttemptsAreUsedUp() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttle.tryAcquire("bilbo", "10.0.0." + i)).isTrue();
+        }
+
+        assertThat(throttle.tryAcquire("Bilbo", "10.0.0.99")).isFalse();
+        assertThat(throttle.tryAcquire("frodo", "10.0.0.99")).isTrue();
+        assertThat(throttle.stats().rejectedByUsername()).isEqualTo(1);
+    }
+
+    @Test
+    void successfulLoginClearsTheUsername() {
+        for (int i = 0; i < 4; i++) {
+            throttle.tryAcquire("bilbo", "10.0.0.1");
+        }
+        throttle.recordSuccess("bilbo");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttle.tryAcquire("bilbo", "10.0.0.1")).isTrue();
+        }
+    }
+
+    @Test
+    void rejectsAnAddressOnceItsAttemptsAreUsedUp() {
+        for (int i = 0; i < 50; i++) {
+            assertThat(throttle.tryAcquire("user" + i, "10.0.0.1")).isTrue();
+        }
+
+        assertThat(throttle.tryAcquire("someone", "10.0.0.1")).isFalse();
+        assertThat(throttle.tryAcquire("someone", "10.0.0.2")).isTrue();
+        assertThat(throttle.stats().rejectedByIp()).isEqualTo(1);
+    }
+
+    @Test
+    void limitsTokenRefreshesPerUsername() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(throttle.tryRefresh("bilbo")).isTrue();
+        }
+
+        assertThat(throttle.tryRefresh("bilbo")).isFalse();
+        assertThat(throttle.tryRefresh("frodo")).isTrue();
+        assertThat(throttle.tryAcquire("bilbo", "10.0.0.1")).isTrue();
+        assertThat(throttle.stats().rejectedRefreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentGuessesCannotOvershootTheUsernameLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Boolean>> guesses = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String address = "10.0.1." + i;
+                guesses.add(() -> throttle.tryAcquire("bilbo", address));
+            }
+
+            long accepted = 0;
+            for (Future<Boolean> guess : executor.invokeAll(guesses)) {
+                if (guess.get()) {
+                    accepted++;
+                }
+            }
+
+            assertThat(accepted).isBetween(1L, 5L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
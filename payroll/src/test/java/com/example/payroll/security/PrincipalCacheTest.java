@@ -0,0 +1,93 @@
+package com.example.payroll.security;
+
+import com.example.payroll.EmployeeSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache(100, 300_000, 30_000);
+    private final EmployeeUserDetails bilbo = principal(1L, "bilbo");
+    private final EmployeeUserDetails frodo = principal(2L, "frodo");
+
+    @Test
+    void reusesAPrincipalOnlyForTokensIssuedBeforeItWasLoaded() {
+        cache.put(bilbo, cache.loadGeneration());
+
+        assertThat(cache.get("bilbo", secondsAgo(5))).isSameAs(bilbo);
+        assertThat(cache.get("bilbo", null)).isSameAs(bilbo);
+        assertThat(cache.get("bilbo", secondsAgo(-5))).isNull();
+        assertThat(cache.get("bilbo", secondsAgo(5))).isNull();
+    }
+
+    @Test
+    void treatsTheIssuedAtSecondAsPossiblyAfterTheLoad() {
+        cache.put(bilbo, cache.loadGeneration());
+        // A token issued a few milliseconds after the load can carry an iat up to a second earlier
+        Date iat = new Date(System.currentTimeMillis() / 1000 * 1000);
+
+        assertThat(cache.get("bilbo", iat)).isNull();
+    }
+
+    @Test
+    void dropsAPrincipalWhoseLoadRacedAnInvalidation() {
+        long loadGeneration = cache.loadGeneration();
+        cache.invalidateEmployee(1L);
+
+        cache.put(bilbo, loadGeneration);
+        cache.put(frodo, loadGeneration);
+
+        assertThat(cache.get("bilbo", secondsAgo(5))).isNull();
+        assertThat(cache.get("frodo", secondsAgo(5))).isSameAs(frodo);
+    }
+
+    @Test
+    void cachesAPrincipalLoadedAfterTheInvalidation() {
+        cache.invalidateEmployee(1L);
+
+        cache.put(bilbo, cache.loadGeneration());
+
+        assertThat(cache.get("bilbo", secondsAgo(5))).isSameAs(bilbo);
+    }
+
+    @Test
+    void bulkAndFullInvalidationsAlsoStopInFlightLoads() {
+        long beforeBulk = cache.loadGeneration();
+        cache.invalidateEmployees(List.of(1L, 3L));
+        cache.put(bilbo, beforeBulk);
+        assertThat(cache.get("bilbo", secondsAgo(5))).isNull();
+
+        long beforeAll = cache.loadGeneration();
+        cache.invalidateAll();
+        cache.put(frodo, beforeAll);
+        assertThat(cache.get("frodo", secondsAgo(5))).isNull();
+    }
+
+    @Test
+    void loginCacheSkipsPrincipalsInvalidatedDuringTheLogin() {
+        assertThat(cache.getUserFromCache("bilbo")).isNull();
+        cache.invalidateEmployee(1L);
+        cache.putUserInCache(bilbo);
+        assertThat(cache.getUserFromCache("bilbo")).isNull();
+
+        cache.putUserInCache(bilbo);
+        assertThat(cache.getUserFromCache("bilbo")).isSameAs(bilbo);
+
+        cache.removeUserFromCache("bilbo");
+        assertThat(cache.getUserFromCache("bilbo")).isNull();
+    }
+
+    private static Date secondsAgo(int seconds) {
+        return new Date(System.currentTimeMillis() - seconds * 1000L);
+    }
+
+    private static EmployeeUserDetails principal(Long id, String username) {
+        return new EmployeeUserDetails(new EmployeeSummary(id, username, username, 1L, "developer"), "hash", 0,
+            List.of(new SimpleGrantedAuthority("ROLE_DEVELOPER")));
+    }
+}
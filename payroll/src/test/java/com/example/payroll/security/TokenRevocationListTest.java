@@ -0,0 +1,137 @@
+package com.example.payroll.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenRevocationListTest {
+
+    private static final long SLOT = 1_000;
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void dropsAnIdOnceTheSlotOfItsExpiryHasPassed() {
+        TokenRevocationList list = newList(100, "");
+        list.revoke("a", new Date(2_500));
+        list.revoke("b", new Date(3_000));
+
+        now.set(2_999);
+        assertThat(list.stats().active()).isEqualTo(2);
+
+        now.set(3_000);
+        assertThat(list.stats().active()).isEqualTo(1);
+        assertThat(list.isRevoked("a")).isFalse();
+        assertThat(list.isRevoked("b")).isTrue();
+
+        now.set(4_000);
+        assertThat(list.stats().active()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterBeingIdleForMoreThanOneTurn() {
+        TokenRevocationList list = newList(100, "");
+        list.revoke("a", new Date(5_000));
+        list.revoke("b", new Date(20_000));
+
+        // The wheel turns once every 22 slots here
+        now.set(100_000);
+        assertThat(list.stats().active()).isZero();
+
+        assertThat(list.revoke("c", new Date(110_000))).isTrue();
+        now.set(109_999);
+        assertThat(list.stats().active()).isEqualTo(1);
+        assertThat(list.isRevoked("c")).isTrue();
+    }
+
+    @Test
+    void refusesNewIdsWhenFullUntilSomeExpire() {
+        TokenRevocationList list = newList(2, "");
+        list.revoke("a", new Date(1_500));
+        list.revoke("b", new Date(20_000));
+
+        assertThat(list.revoke("a", new Date(1_500))).isFalse();
+        assertThatThrownBy(() -> list.revoke("c", new Date(20_000)))
+            .isInstanceOf(RevocationCapacityExceededException.class);
+
+        now.set(2_000);
+        assertThat(list.revoke("c", new Date(20_000))).isTrue();
+    }
+
+    @Test
+    void acceptsEachIdOnceUnderConcurrency() throws Exception {
+        TokenRevocationList list = newList(100, "");
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                attempts.add(() -> list.revoke("refresh-token", new Date(10_000)));
+            }
+
+            long accepted = 0;
+            for (Future<Boolean> attempt : executor.invokeAll(attempts)) {
+                if (attempt.get()) {
+                    accepted++;
+                }
+            }
+
+            assertThat(accepted).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void replaysLiveEntriesFromTheJournal(@TempDir Path dir) throws Exception {
+        Path journal = dir.resolve("revoked.log");
+        TokenRevocationList first = newList(100, journal.toString());
+        first.revoke("a", new Date(50_000));
+        first.revoke("b", new Date(5_000));
+        first.close();
+
+        now.set(10_000);
+        TokenRevocationList second = newList(100, journal.toString());
+
+        assertThat(second.isRevoked("a")).isTrue();
+        assertThat(second.isRevoked("b")).isFalse();
+        assertThat(second.revoke("a", new Date(50_000))).isFalse();
+        assertThat(Files.readAllLines(journal, StandardCharsets.UTF_8)).containsExactly("a 50000");
+        second.close();
+    }
+
+    @Test
+    void compactsTheJournalOnceMostOfItHasExpired(@TempDir Path dir) throws Exception {
+        Path journal = dir.resolve("revoked.log");
+        TokenRevocationList list = newList(10_000, journal.toString());
+        for (int i = 0; i < 1_100; i++) {
+            list.revoke("old-" + i, new Date(1_500));
+        }
+        assertThat(Files.readAllLines(journal, StandardCharsets.UTF_8)).hasSize(1_100);
+
+        now.set(2_000);
+        list.revoke("new", new Date(20_000));
+
+        assertThat(Files.readAllLines(journal, StandardCharsets.UTF_8)).containsExactly("new 20000");
+        list.revoke("newer", new Date(20_000));
+        assertThat(Files.readAllLines(journal, StandardCharsets.UTF_8)).containsExactly("new 20000", "newer 20000");
+        list.close();
+    }
+
+    private TokenRevocationList newList(int maxEntries, String journalFile) {
+        return new TokenRevocationList(10_000, 20_000, SLOT, maxEntries, journalFile, now::get);
+    }
+}